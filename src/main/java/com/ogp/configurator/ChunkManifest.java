@@ -0,0 +1,159 @@
+package com.ogp.configurator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+
+/**
+* Content of configuration node whose data is too large for a single znode. Data is split into chunks
+* stored as children of the configuration node, named by generation and index, and the node itself keeps
+* this manifest. Every write of a large value uses a new generation, so chunks of different versions
+* never mix, and the value is assembled only when all chunks of the manifest generation are present and
+* match the checksum. Manifest starts with header byte {@value #HEADER}, which doesn't start serialized objects.
+*/
+final class ChunkManifest {
+
+	static final byte HEADER = 0x02;
+	private static final int LENGTH = 1 + 8 + 4 + 4 + 4 + 8;
+
+	/**
+	 * Source of chunk data, e.g. ZooKeeper or local replica.
+	 */
+	interface ChunkSource {
+		/**
+		 * @return data of the chunk with the given node name or {@code null} if chunk doesn't exist.
+		 */
+		byte[] getChunk(String name) throws Exception;
+	}
+
+	/**
+	 * Returns source of chunks of the given node kept in TreeCache.
+	 */
+	static ChunkSource treeCacheSource(final TreeCache cache, final String path) {
+		return new ChunkSource() {
+			@Override
+			public byte[] getChunk(String name) {
+				final ChildData chunk = cache.getCurrentData(path + "/" + name);
+				return chunk != null ? chunk.getData() : null;
+			}
+		};
+	}
+
+	private final long generation;
+	private final int chunkSize;
+	private final int chunks;
+	private final int length;
+	private final long checksum;
+
+	private ChunkManifest(long generation, int chunkSize, int chunks, int length, long checksum) {
+		this.generation = generation;
+		this.chunkSize = chunkSize;
+		this.chunks = chunks;
+		this.length = length;
+		this.checksum = checksum;
+	}
+
+	/**
+	 * Creates manifest of a new generation for the given data.
+	 */
+	static ChunkManifest of(byte[] data, int chunkSize) {
+		final CRC32 crc = new CRC32();
+		crc.update(data);
+		final int chunks = (data.length + chunkSize - 1) / chunkSize;
+		return new ChunkManifest(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, chunkSize, chunks, data.length, crc.getValue());
+	}
+
+	/**
+	 * Parses node data as a manifest.
+	 *
+	 * @return manifest or {@code null} if node data is not a manifest.
+	 */
+	static ChunkManifest parse(byte[] data) {
+		if (data == null || data.length != LENGTH || data[0] != HEADER) {
+			return null;
+		}
+		final ByteBuffer buffer = ByteBuffer.wrap(data, 1, LENGTH - 1);
+		final long generation = buffer.getLong();
+		final int chunkSize = buffer.getInt();
+		final int chunks = buffer.getInt();
+		final int length = buffer.getInt();
+		final long checksum = buffer.getLong();
+		if (chunkSize <= 0 || chunks <= 0 || length < 0 || (long) chunks * chunkSize < length) {
+			return null;
+		}
+		return new ChunkManifest(generation, chunkSize, chunks, length, checksum);
+	}
+
+	static boolean isManifest(byte[] data) {
+		return parse(data) != null;
+	}
+
+	byte[] toBytes() {
+		final ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+		buffer.put(HEADER).putLong(generation).putInt(chunkSize).putInt(chunks).putInt(length).putLong(checksum);
+		return buffer.array();
+	}
+
+	int getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * Returns node name of the chunk with the given index.
+	 */
+	String chunkName(int index) {
+		return Long.toHexString(generation) + "-" + index;
+	}
+
+	/**
+	 * Checks either the given chunk node name belongs to this manifest generation.
+	 */
+	boolean isOwnChunk(String name) {
+		return name.startsWith(Long.toHexString(generation) + "-");
+	}
+
+	/**
+	 * Returns data of the chunk with the given index.
+	 */
+	byte[] chunk(byte[] data, int index) {
+		final int from = index * chunkSize;
+		return Arrays.copyOfRange(data, from, Math.min(from + chunkSize, data.length));
+	}
+
+	/**
+	 * Assembles data from chunks of this manifest generation.
+	 *
+	 * @return assembled data or {@code null} if some chunk is missing or data doesn't match checksum.
+	 */
+	byte[] assemble(ChunkSource source) throws Exception {
+		final byte[] data = new byte[length];
+		int position = 0;
+		for (int i = 0; i < chunks; i++) {
+			final byte[] chunk = source.getChunk(chunkName(i));
+			if (chunk == null || position + chunk.length > length) {
+				return null;
+			}
+			System.arraycopy(chunk, 0, data, position, chunk.length);
+			position += chunk.length;
+		}
+		if (position != length) {
+			return null;
+		}
+		final CRC32 crc = new CRC32();
+		crc.update(data);
+		return crc.getValue() == checksum ? data : null;
+	}
+
+	@Override
+	public String toString() {
+		return "ChunkManifest{" +
+				"generation=" + Long.toHexString(generation) +
+				", chunks=" + chunks +
+				", length=" + length +
+				'}';
+	}
+}
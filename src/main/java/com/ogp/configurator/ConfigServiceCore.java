@@ -3,15 +3,22 @@ package com.ogp.configurator;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.imps.CuratorFrameworkState;
+import org.apache.zookeeper.KeeperException.NodeExistsException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
+import com.ogp.configurator.serializer.IPatchSerializer;
+import com.ogp.configurator.serializer.IPreparedSerializer;
 import com.ogp.configurator.serializer.ISerializer;
+import com.ogp.configurator.serializer.SerializationException;
 
 /**
 * Configuration Service core abstract class.
@@ -29,8 +36,10 @@ public abstract class ConfigServiceCore {
 	private final CuratorFramework curator;
 	protected final String configEnvironmentPath;
 	private final ISerializer serializer;
+	private final Map<Class<?>, ISerializer> typeSerializers;
 	private final Map<String, Class<Object>> configTypes;
 	private final Map<Class<Object>, String> classToType;
+	private final Set<String> ensuredPaths = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 	
 	public static Builder newBuilder(CuratorFramework zkClient, ISerializer serializer, String environment) {
 		return new Builder(zkClient, serializer, environment);
@@ -39,6 +48,7 @@ public abstract class ConfigServiceCore {
 	protected ConfigServiceCore(Builder builder){
 		this.curator = builder.curator;
 		this.serializer = builder.serializer;
+		this.typeSerializers = ImmutableMap.copyOf(builder.typeSerializers);
 		this.configEnvironmentPath = CONFIG_BASE_PATH + CONFIG_PATH_DELIMITER + builder.environment;
 		this.configTypes = ImmutableMap.copyOf(builder.configTypes);
 		
@@ -50,6 +60,7 @@ public abstract class ConfigServiceCore {
 		}
 		this.classToType = ImmutableMap.copyOf(classToType);
 
+		prepareSerializers();
 		initPaths();
 		
 	}
@@ -75,22 +86,65 @@ public abstract class ConfigServiceCore {
 	}
 	
 	protected String buildPath(String type, String key) {
-		ensurePath(getPathForType(type));
+		ensureTypePath(type);
 		return getPath(type, key);
 	}
 	
+	protected String ensureTypePath(String type) {
+		final String path = getPathForType(type);
+		ensurePath(path);
+		return path;
+	}
+	
+	/**
+	 * Forgets that type path exists, so it's checked and created again by the next {@link #ensureTypePath(String)}.
+	 * Called when the type node turns out to be removed, e.g. by an operator.
+	 */
+	protected void forgetTypePath(String type) {
+		ensuredPaths.remove(getPathForType(type));
+	}
+	
 	protected <T> byte[] serialize(T value) {
-		return serializer.serialize(value);
+		return getSerializer(value.getClass()).serialize(value);
 	}
 	
 	protected <T> T deserialize(byte[] array, Class<T> clazz) {
-		return serializer.deserialize(array, clazz);
+		return getSerializer(clazz).deserialize(array, clazz);
+	}
+	
+	/**
+	 * Returns serializer registered for the given configuration class or the default one.
+	 */
+	protected ISerializer getSerializer(Class<?> clazz) {
+		final ISerializer typeSerializer = typeSerializers.get(clazz);
+		return typeSerializer != null ? typeSerializer : serializer;
+	}
+	
+	/**
+	 * Returns serializer of the given configuration class which supports merge patches.
+	 *
+	 * @throws SerializationException if serializer of the class doesn't support patches.
+	 */
+	protected IPatchSerializer getPatchSerializer(Class<?> clazz) {
+		final ISerializer typeSerializer = getSerializer(clazz);
+		if (!(typeSerializer instanceof IPatchSerializer))
+			throw new SerializationException(typeSerializer + " of " + clazz + " doesn't support patches");
+		return (IPatchSerializer) typeSerializer;
 	}
 	
 	protected CuratorFramework getCurator() {
 		return curator;
 	}
 	
+	private void prepareSerializers() {
+		for (Class<Object> typeClass : configTypes.values()) {
+			final ISerializer typeSerializer = getSerializer(typeClass);
+			if (typeSerializer instanceof IPreparedSerializer) {
+				((IPreparedSerializer) typeSerializer).prepare(typeClass);
+			}
+		}
+	}
+	
 	private void initPaths() {
 		// Ensure base paths
 		for (String path : Arrays.asList(CONFIG_BASE_PATH, configEnvironmentPath)) {
@@ -103,22 +157,33 @@ public abstract class ConfigServiceCore {
 		}
 	}
 	
+	/**
+	 * Ensures the given path exists. Paths are never removed by the service, so each path
+	 * is checked in ZooKeeper only once, until it's forgotten after removal from outside.
+	 * Parents are created as well, in case they were removed together with the path.
+	 */
 	private void ensurePath(String path) throws InvalidAccessException {
+		if (ensuredPaths.contains(path)) {
+			return;
+		}
 		try {
 			if (curator.checkExists().forPath(path) == null) {
 				logger.trace("ensurePath() path={} created", path); 
-				curator.create().forPath(path);
+				curator.create().creatingParentsIfNeeded().forPath(path);
 			}
+		} catch (NodeExistsException e) {
+			logger.trace("ensurePath() path={} created concurrently", path);
 		} catch (Exception e) {
 			throw new InvalidAccessException(e);
 		}
-
+		ensuredPaths.add(path);
 	}
 	
 	public static class Builder {
 		private final CuratorFramework curator;
 		private final String environment;
 		protected final Map<String, Class<Object>> configTypes = new HashMap<>();
+		private final Map<Class<?>, ISerializer> typeSerializers = new HashMap<>();
 		private final ISerializer serializer;
 
 		public Builder(CuratorFramework curator, ISerializer serializer, String environment) {
@@ -138,6 +203,22 @@ public abstract class ConfigServiceCore {
 			return this;
 		}
 
+		/**
+		 * Registers configuration type stored with its own serializer instead of the default one.
+		 * All clients of the environment must use the same serializer for the type, and data already
+		 * stored in other format can't be read after the serializer is changed.
+		 *
+		 * @param type configuration type name
+		 * @param typeClass configuration object class
+		 * @param serializer serializer of the type objects
+		 */
+		public Builder registerConfigType(String type, Class<?> typeClass, ISerializer serializer) {
+			checkNotNull(serializer);
+			registerConfigType(type, typeClass);
+			typeSerializers.put(typeClass, serializer);
+			return this;
+		}
+
 		
 	}
 }
@@ -1,11 +1,16 @@
 package com.ogp.configurator;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -20,7 +25,10 @@ import rx.functions.Action1;
 import rx.functions.Func1;
 import rx.subjects.PublishSubject;
 
-import com.ogp.configurator.ConfigurationEvent.ConfigType;
+import com.google.common.base.Function;
+import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
 import com.ogp.configurator.ConfigurationEvent.UpdateType;
 import com.ogp.configurator.serializer.ISerializer;
 
@@ -34,25 +42,49 @@ import com.ogp.configurator.serializer.ISerializer;
 public class Configuration extends ConfigurationMonitor implements IConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(Configuration.class);
-	private final ConcurrentHashMap<Class<? extends Object>, Map<String, Object>> configObjects;
+	public static final long DEFAULT_BATCH_TIMESPAN_MS = 100;
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	private final ImmutableMap<Class<? extends Object>, ConfigurationStore<Object>> configObjects;
+	private final ImmutableMap<Class<? extends Object>, ConfigurationRouter<Object>> routers;
 	private final CountDownLatch syncInit;
 	private final PublishSubject<ConfigurationEvent> subject;
+	private final Observable<List<ConfigurationEvent>> batches;
+	private final ConfigurationDispatcher dispatcher;
 	
 	
 	private Configuration(Builder builder) {
 		super(builder);
 		this.syncInit = new CountDownLatch(1);
-		this.configObjects = new ConcurrentHashMap<>(builder.configTypes.size(), 0.9f, 1);
+		ImmutableMap.Builder<Class<? extends Object>, ConfigurationStore<Object>> stores = ImmutableMap.builder();
+		ImmutableMap.Builder<Class<? extends Object>, ConfigurationRouter<Object>> routers = ImmutableMap.builder();
+		for (Class<Object> typeClass : builder.configTypes.values()) {
+			ImmutableMap.Builder<String, ConfigurationIndex<Object>> indexes = ImmutableMap.builder();
+			Map<String, Function<Object, ? extends Iterable<?>>> typeIndexes = builder.indexes.get(typeClass);
+			if (typeIndexes != null) {
+				for (Map.Entry<String, Function<Object, ? extends Iterable<?>>> index : typeIndexes.entrySet()) {
+					indexes.put(index.getKey(), new ConfigurationIndex<Object>(index.getKey(), index.getValue()));
+				}
+			}
+			stores.put(typeClass, new ConfigurationStore<Object>(typeClass, indexes.build()));
+			routers.put(typeClass, new ConfigurationRouter<Object>(typeClass));
+		}
+		this.configObjects = stores.build();
+		this.routers = routers.build();
 		this.subject = PublishSubject.create();
+		this.dispatcher = builder.dispatchBufferSize > 0
+				? new ConfigurationDispatcher(subject, builder.dispatchBufferSize, builder.overflowPolicy)
+				: null;
+		this.batches = subject
+				.buffer(builder.batchTimespan, builder.batchTimeUnit, builder.batchSize)
+				.filter(new Func1<List<ConfigurationEvent>, Boolean>() {
+					@Override
+					public Boolean call(List<ConfigurationEvent> batch) {
+						return !batch.isEmpty();
+					}
+				});
 		
-		OnConnection onConnection = new OnConnection();
-		super.listen().filter(onConnection).subscribe(onConnection);
-		OnInitialized onInitialized = new OnInitialized();
-		super.listen().filter(onInitialized).subscribe(onInitialized);
-		OnAddOrUpdate onAddOrUpdate = new OnAddOrUpdate();
-		super.listen().filter(onAddOrUpdate).subscribe(onAddOrUpdate);
-		OnRemoved onRemoved = new OnRemoved();
-		super.listen().filter(onRemoved).subscribe(onRemoved);
+		super.listen().subscribe(new OnEvent());
+		subject.subscribe(new OnRoute());
 		
 		super.listen().doOnError(new Action1<Throwable>() {
 			@Override
@@ -154,7 +186,27 @@ public class Configuration extends ConfigurationMonitor implements IConfiguratio
 	
 	@Override
 	public void start() throws ConnectionLossException {
+		if (dispatcher != null) {
+			dispatcher.start();
+		}
 		super.start();
+		if (getRestoredNodes() > 0) {
+			logger.info("Configuration() serving local snapshot until replica is reconciled with ZooKeeper");
+			syncInit.countDown();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Events already queued for asynchronous dispatch are delivered before the dispatcher thread stops.
+	 */
+	@Override
+	public void close() {
+		super.close();
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
 	}
 
 	@Override
@@ -175,19 +227,7 @@ public class Configuration extends ConfigurationMonitor implements IConfiguratio
 		if (key == null)
 			throw new UnknownTypeException("key is null");
 		
-		if (!isTypeConfigured(type))
-			throw new UnknownTypeException("Specified "+type.toString()+" not registred");
-
-		//Check existent
-		if (configObjects.containsKey(type)) {
-			Map<String, Object> entities = configObjects.get(type);
-			synchronized (entities) {
-				return (T)entities.get(key);
-			}
-		} else {
-			logger.debug("Class {} not found in cache", type);
-		}
-		return null;
+		return (T)getStore(type).get(key);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -195,31 +235,180 @@ public class Configuration extends ConfigurationMonitor implements IConfiguratio
 	public <T> List<T> list(Class<T> type) {
 		if (type == null)
 			throw new UnknownTypeException("type is null");
-		
-		if (!isTypeConfigured(type))
+
+		final ConfigurationStore<Object> entities = getStore(type);
+		logger.trace("Config cache for class {} have {} elements", type, entities.size());
+		return new ArrayList<T>((Collection<T>) entities.values());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> ConfigurationSnapshot<T> snapshot(Class<T> type) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+
+		return (ConfigurationSnapshot<T>) getStore(type).snapshot();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> ConfigurationHandle<T> handle(Class<T> type) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+
+		return new ConfigurationHandle<T>((ConfigurationStore<T>) (ConfigurationStore<?>) getStore(type));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> Collection<T> find(Class<T> type, String index, Object indexKey) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (index == null)
+			throw new UnknownTypeException("index is null");
+		if (indexKey == null)
+			throw new UnknownTypeException("indexKey is null");
+
+		return (Collection<T>) getIndex(getStore(type), index).find(indexKey);
+	}
+
+	static <T> ConfigurationIndex<T> getIndex(ConfigurationStore<T> entities, String index) {
+		final ConfigurationIndex<T> configIndex = entities.getIndex(index);
+		if (configIndex == null)
+			throw new UnknownTypeException("Index "+index+" not registred for "+entities.getTypeClass().toString());
+		return configIndex;
+	}
+
+	@Override
+	public <T> ConfigurationReference<T> bind(Class<T> type, String key) {
+		return bind(type, key, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> ConfigurationReference<T> bind(Class<T> type, String key, T defaultValue) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+
+		final ConfigurationStore<T> entities = (ConfigurationStore<T>) (ConfigurationStore<?>) getStore(type);
+		return new ConfigurationReference<T>(type, entities.bind(key), defaultValue);
+	}
+
+	/**
+	 * Resolves local store of the given type. Single lookup both checks type registration
+	 * and finds the store, stores for all registered types are created at construction.
+	 */
+	private ConfigurationStore<Object> getStore(Class<?> type) {
+		final ConfigurationStore<Object> entities = configObjects.get(type);
+		if (entities == null)
 			throw new UnknownTypeException("Specified "+type.toString()+" not registred");
-		
-		final List<T> configEntities = new ArrayList<>();
-		
-		if (configObjects.containsKey(type)) {
-			logger.trace("Config cache for class {} have {} elements\n", type.toString(), configObjects.get(type).size());
-			Map<String, Object> entities = configObjects.get(type);
-			synchronized (entities) {
-				configEntities.addAll((Collection<T>) entities.values());
-			}
-		} else {
-			logger.debug("Class {} not found in cache", type);
-		}
-		return configEntities;
+		return entities;
 	}
-	
+
 	@Override
 	public Observable<ConfigurationEvent> listen() {
 		return this.subject;
 	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> Observable<ConfigurationChange<T>> listen(Class<T> type) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+
+		return ((ConfigurationRouter<T>) (ConfigurationRouter<?>) getRouter(type)).listen();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> Observable<ConfigurationChange<T>> listen(Class<T> type, String key) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+
+		return ((ConfigurationRouter<T>) (ConfigurationRouter<?>) getRouter(type)).listen(key);
+	}
+
+	private ConfigurationRouter<Object> getRouter(Class<?> type) {
+		final ConfigurationRouter<Object> router = routers.get(type);
+		if (router == null)
+			throw new UnknownTypeException("Specified "+type.toString()+" not registred");
+		return router;
+	}
+
+	@Override
+	public Observable<List<ConfigurationEvent>> listenBatches() {
+		return this.batches;
+	}
+
+	/**
+	 * Returns dispatcher which delivers events to listeners asynchronously, with its queue metrics,
+	 * or {@code null} if listeners are called synchronously on the TreeCache event thread.
+	 *
+	 * @see Builder#asyncDispatch(int, ConfigurationDispatcher.OverflowPolicy)
+	 */
+	public ConfigurationDispatcher getDispatcher() {
+		return dispatcher;
+	}
+
+	/**
+	 * Applies initial load to local replica with single snapshot publication per type, so readers
+	 * never see partially loaded type, then passes the events to listeners.
+	 */
+	@Override
+	protected void publishInitialLoad(List<ConfigurationEvent> events) {
+		final Map<Class<?>, List<ConfigurationEvent>> byType = new LinkedHashMap<>();
+		for (ConfigurationEvent event : events) {
+			List<ConfigurationEvent> typeEvents = byType.get(event.getTypeClass());
+			if (typeEvents == null) {
+				typeEvents = new ArrayList<>();
+				byType.put(event.getTypeClass(), typeEvents);
+			}
+			typeEvents.add(event);
+		}
+		for (Map.Entry<Class<?>, List<ConfigurationEvent>> typeEvents : byType.entrySet()) {
+			final List<String> keys = new ArrayList<>(typeEvents.getValue().size());
+			final List<Supplier<Object>> values = new ArrayList<>(typeEvents.getValue().size());
+			for (ConfigurationEvent event : typeEvents.getValue()) {
+				keys.add(event.getKey());
+				values.add(event.getUpdateType() == UpdateType.REMOVED ? null : event.<Object>getNewValueSupplier());
+			}
+			final List<Supplier<Object>> oldValues = getStore(typeEvents.getKey()).applyEntries(keys, values);
+			for (int i = 0; i < oldValues.size(); i++) {
+				if (oldValues.get(i) != null) {
+					typeEvents.getValue().get(i).setOldValueSupplier(oldValues.get(i));
+				}
+			}
+		}
+		logger.debug("Configuration() initial load of {} objects applied", events.size());
+		for (ConfigurationEvent event : events) {
+			emit(event);
+		}
+	}
+
+	/**
+	 * Passes event to listeners, local replica is already updated at this point.
+	 */
+	private void emit(ConfigurationEvent event) {
+		if (dispatcher != null) {
+			dispatcher.dispatch(event);
+		} else {
+			subject.onNext(event);
+		}
+	}
 	
 	public static class Builder extends ConfigurationMonitor.Builder {
 
+		private final Map<Class<?>, Map<String, Function<Object, ? extends Iterable<?>>>> indexes = new HashMap<>();
+		private long batchTimespan = DEFAULT_BATCH_TIMESPAN_MS;
+		private TimeUnit batchTimeUnit = TimeUnit.MILLISECONDS;
+		private int batchSize = DEFAULT_BATCH_SIZE;
+		private int dispatchBufferSize;
+		private ConfigurationDispatcher.OverflowPolicy overflowPolicy;
+
 		public Builder(CuratorFramework zkClient, ISerializer serializer, String environment) {
 			super(zkClient, serializer, environment);
 		}
@@ -228,15 +417,133 @@ public class Configuration extends ConfigurationMonitor implements IConfiguratio
 			super.registerConfigType(type, typeClass);
 			return this;
 		}
-		
+
+		public Builder registerConfigType(String type, Class<?> typeClass, ISerializer serializer) {
+			super.registerConfigType(type, typeClass, serializer);
+			return this;
+		}
+
+		@Override
+		public Builder lazyDeserialization(boolean lazy) {
+			super.lazyDeserialization(lazy);
+			return this;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * {@link Configuration#awaitInitialized()} returns as soon as objects are restored from
+		 * non-empty snapshot, while {@link Configuration#isInitialized()} turns true only after
+		 * reconciliation with ZooKeeper.
+		 */
+		@Override
+		public Builder localSnapshot(File file) {
+			super.localSnapshot(file);
+			return this;
+		}
+
+		@Override
+		public Builder localSnapshot(File file, long interval, TimeUnit unit) {
+			super.localSnapshot(file, interval, unit);
+			return this;
+		}
+
+		@Override
+		public Builder parallelInitialLoad(int parallelism) {
+			super.parallelInitialLoad(parallelism);
+			return this;
+		}
+
+		/**
+		 * Configures batches emitted by {@link IConfiguration#listenBatches()}. Batch is emitted when
+		 * it collects {@code maxSize} events or when {@code timespan} elapses since the previous batch.
+		 * Defaults are {@value Configuration#DEFAULT_BATCH_TIMESPAN_MS} ms and {@value Configuration#DEFAULT_BATCH_SIZE} events.
+		 *
+		 * @param timespan maximal time to collect single batch
+		 * @param unit the time unit of the {@code timespan} argument
+		 * @param maxSize maximal number of events in single batch
+		 */
+		public Builder batchEvents(long timespan, TimeUnit unit, int maxSize) {
+			checkArgument(timespan > 0, "timespan must be positive");
+			checkNotNull(unit);
+			checkArgument(maxSize > 0, "maxSize must be positive");
+			this.batchTimespan = timespan;
+			this.batchTimeUnit = unit;
+			this.batchSize = maxSize;
+			return this;
+		}
+
+		/**
+		 * Delivers events to listeners on a dedicated thread through bounded buffer, instead of calling them
+		 * on the TreeCache event thread. Local replica is updated before the event is queued, so slow
+		 * listeners don't delay getters. Metrics are available through {@link Configuration#getDispatcher()}.
+		 *
+		 * @param bufferSize maximal number of queued events, power of 2
+		 * @param overflowPolicy what to do when the buffer is full
+		 */
+		public Builder asyncDispatch(int bufferSize, ConfigurationDispatcher.OverflowPolicy overflowPolicy) {
+			checkArgument(bufferSize > 0 && Integer.bitCount(bufferSize) == 1, "bufferSize must be a power of 2");
+			checkNotNull(overflowPolicy);
+			this.dispatchBufferSize = bufferSize;
+			this.overflowPolicy = overflowPolicy;
+			return this;
+		}
+
+		/**
+		 * Registers secondary index over configuration objects of the given type. Each object is indexed
+		 * under the key returned by the key extractor, objects with {@code null} key are not indexed.
+		 *
+		 * @param typeClass registered configuration object class
+		 * @param name index name, unique for the given type
+		 * @param keyExtractor function which returns index key of configuration object
+		 * @see IConfiguration#find(Class, String, Object)
+		 */
+		public <T> Builder registerIndex(Class<T> typeClass, String name, final Function<? super T, ?> keyExtractor) {
+			checkNotNull(keyExtractor);
+			return registerMultiIndex(typeClass, name, new Function<T, Iterable<?>>() {
+				@Override
+				public Iterable<?> apply(T value) {
+					return Collections.singleton(keyExtractor.apply(value));
+				}
+			});
+		}
+
+		/**
+		 * Registers secondary index over configuration objects of the given type, where each object
+		 * can be indexed under several keys, e.g. currency rates by each of currencies.
+		 *
+		 * @param typeClass registered configuration object class
+		 * @param name index name, unique for the given type
+		 * @param keyExtractor function which returns all index keys of configuration object
+		 * @see IConfiguration#find(Class, String, Object)
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> Builder registerMultiIndex(Class<T> typeClass, String name, Function<? super T, ? extends Iterable<?>> keyExtractor) {
+			checkNotNull(typeClass);
+			checkArgument(!Strings.isNullOrEmpty(name));
+			checkNotNull(keyExtractor);
+			Map<String, Function<Object, ? extends Iterable<?>>> typeIndexes = indexes.get(typeClass);
+			if (typeIndexes == null) {
+				typeIndexes = new HashMap<>();
+				indexes.put(typeClass, typeIndexes);
+			}
+			checkArgument(!typeIndexes.containsKey(name), "Index %s already registered for %s", name, typeClass);
+			typeIndexes.put(name, (Function<Object, ? extends Iterable<?>>) keyExtractor);
+			return this;
+		}
+
 		public Configuration build() {
+			for (Class<?> typeClass : indexes.keySet()) {
+				checkArgument(configTypes.containsValue(typeClass), "Index registered for not registered %s", typeClass);
+			}
 			return new Configuration(this);
 		}
 	}
 	
-	private abstract class DefaultObserver 
-		implements Observer<ConfigurationEvent>,
-					Func1<ConfigurationEvent, Boolean> {
+	/**
+	 * Routes update events emitted to listeners to per-type and per-key subscribers.
+	 */
+	private class OnRoute implements Observer<ConfigurationEvent> {
 	
 		@Override
 		public void onCompleted() {}
@@ -244,119 +551,100 @@ public class Configuration extends ConfigurationMonitor implements IConfiguratio
 		@Override
 		public void onError(Throwable e) {}
 		
-	}
-	
-	private class OnConnection extends DefaultObserver {
-	
-		@Override
-		public Boolean call(ConfigurationEvent event) {
-			if (event.getConfigType() == ConfigType.CONNECTION_LOST
-					|| event.getConfigType() == ConfigType.CONNECTION_RESTORED)
-				return true;
-			else
-				return false;
-		}
-		
 		@Override
 		public void onNext(ConfigurationEvent event) {
-			logger.trace("OnConnection event {} passed.", event.toString());
-			subject.onNext(event);
+			if (event.getUpdateType() != UpdateType.UNDEFINED) {
+				final ConfigurationRouter<Object> router = routers.get(event.getTypeClass());
+				if (router != null) {
+					router.route(event);
+				}
+			}
 		}
 	}
 	
-	private class OnInitialized extends DefaultObserver {
+	/**
+	 * Maintains local replica and passes events to listeners. All event types are handled
+	 * by this single subscription in one pass, dispatching on config and update type.
+	 */
+	private class OnEvent implements Observer<ConfigurationEvent> {
 	
 		@Override
-		public Boolean call(ConfigurationEvent event) {
-			if (event.getConfigType() == ConfigType.INITIALIZED)
-				return true;
-			else
-				return false;
-		}
+		public void onCompleted() {}
+	
+		@Override
+		public void onError(Throwable e) {}
 		
 		@Override
 		public void onNext(ConfigurationEvent event) {
+			switch (event.getConfigType()) {
+				case UNDEFINED:
+					switch (event.getUpdateType()) {
+						case ADDED:
+						case UPDATED:
+							onAddOrUpdate(event);
+							break;
+						case REMOVED:
+							onRemoved(event);
+							break;
+						default:
+							break;
+					}
+					break;
+				case INITIALIZED:
+					onInitialized(event);
+					break;
+				case CONNECTION_LOST:
+				case CONNECTION_RESTORED:
+					onConnection(event);
+					break;
+			}
+		}
+		
+		private void onConnection(ConfigurationEvent event) {
+			logger.trace("OnConnection event {} passed.", event);
+			emit(event);
+		}
+		
+		private void onInitialized(ConfigurationEvent event) {
 			logger.info("Configuration() initialization Done.");
 			syncInit.countDown();
-			subject.onNext(event);
-		}
-	}
-	
-	private class OnAddOrUpdate extends DefaultObserver {
-	
-		@Override
-		public Boolean call(ConfigurationEvent event) {
-			if (event.getUpdateType() == UpdateType.ADDED
-					|| event.getUpdateType() == UpdateType.UPDATED)
-				return true;
-			else
-				return false;
+			emit(event);
 		}
 		
-		@Override
-		public void onNext(ConfigurationEvent event) {
+		private void onAddOrUpdate(ConfigurationEvent event) {
 			logger.trace("Configuration OnAddOrUpdate Event onNext() ConfigType={}, updateType={}, class={}",
 					event.getConfigType(),
 					event.getUpdateType(),
-					event.getTypeClass().toString());
-			Map<String, Object> entities;
-			Object updated = null;
-			entities = configObjects.putIfAbsent(event.getTypeClass(), new HashMap<String, Object>());
-			if (entities == null) {
-				entities = configObjects.get(event.getTypeClass());
-			}
-			synchronized (entities) {
-				updated = entities.put(event.getKey(), event.getNewValue());
-			}
+					event.getTypeClass());
+			final ConfigurationStore<Object> entities = configObjects.get(event.getTypeClass());
+			final Supplier<Object> updated = entities.putEntry(event.getKey(), event.<Object>getNewValueSupplier());
 			if (updated != null) {
-				event.setOldValue(updated);
+				event.setOldValueSupplier(updated);
+			}
+			if (logger.isTraceEnabled()) {
 				logger.trace("Configuration OnAddOrUpdate Event onNext() updateType={}, key={}, class={}, newValue={}, oldValue={}",
 						event.getUpdateType(),
 						event.getKey(),
 						event.getTypeClass().toString(),
-						event.getNewValue().toString(),
-						event.getOldValue().toString());
-			} else {
-				logger.trace("Configuration OnAddOrUpdate Event onNext() updateType={}, key={}, class={}, newValue={}",
-						event.getUpdateType(),
-						event.getKey(),
-						event.getTypeClass().toString(),
-						event.getNewValue().toString());
+						event.getNewValue(),
+						event.getOldValue());
 			}
-			subject.onNext(event);
-		}
-	}
-	
-	private class OnRemoved extends DefaultObserver {
-	
-		@Override
-		public Boolean call(ConfigurationEvent event) {
-			if (event.getUpdateType() == UpdateType.REMOVED)
-				return true;
-			else
-				return false;
+			emit(event);
 		}
 		
-		@Override
-		public void onNext(ConfigurationEvent event) {
-			if (configObjects.containsKey(event.getTypeClass())) {
-				Object removed;
-				Map<String, Object> entities = configObjects.get(event.getTypeClass());
-				if (entities != null) {
-					synchronized (entities) {
-						removed = entities.remove(event.getKey());
-					}
-					event.setOldValue(removed);
-					logger.trace("Configuration OnRemoved Event onNext() updateType={}, key={}, class={}, oldValue={}",
-							event.getUpdateType(),
-							event.getKey(),
-							event.getTypeClass().toString(),
-							event.getOldValue().toString());
-				} else {
-					logger.debug("Configuration OnRemoved Event onNext() Class {} not found in cache", event.getTypeClass().toString());
-				}
+		private void onRemoved(ConfigurationEvent event) {
+			final ConfigurationStore<Object> entities = configObjects.get(event.getTypeClass());
+			if (entities != null) {
+				final Supplier<Object> removed = entities.removeEntry(event.getKey());
+				event.setOldValueSupplier(removed);
+				logger.trace("Configuration OnRemoved Event onNext() updateType={}, key={}, class={}",
+						event.getUpdateType(),
+						event.getKey(),
+						event.getTypeClass());
+			} else {
+				logger.debug("Configuration OnRemoved Event onNext() Class {} not found in cache", event.getTypeClass());
 			}
-			subject.onNext(event);
+			emit(event);
 		}
 	}
 	
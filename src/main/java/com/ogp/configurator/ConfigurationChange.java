@@ -0,0 +1,69 @@
+package com.ogp.configurator;
+
+import com.ogp.configurator.ConfigurationEvent.UpdateType;
+
+/**
+ * Typed view of configuration update event for a single configuration type.
+ *
+ * @param <T> configuration object class
+ * @see IConfiguration#listen(Class)
+ * @see IConfiguration#listen(Class, String)
+ */
+public final class ConfigurationChange<T> {
+
+	private final Class<T> typeClass;
+	private final ConfigurationEvent event;
+
+	ConfigurationChange(Class<T> typeClass, ConfigurationEvent event) {
+		this.typeClass = typeClass;
+		this.event = event;
+	}
+
+	public Class<T> getTypeClass() {
+		return typeClass;
+	}
+
+	public String getKey() {
+		return event.getKey();
+	}
+
+	public UpdateType getUpdateType() {
+		return event.getUpdateType();
+	}
+
+	/**
+	 * Returns configuration object before the change or {@code null} if it was added.
+	 *
+	 * @return previous configuration object or {@code null}.
+	 */
+	public T getOldValue() {
+		return typeClass.cast(event.getOldValue());
+	}
+
+	/**
+	 * Returns configuration object after the change or {@code null} if it was removed.
+	 *
+	 * @return new configuration object or {@code null}.
+	 */
+	public T getNewValue() {
+		return typeClass.cast(event.getNewValue());
+	}
+
+	/**
+	 * Returns underlying untyped event.
+	 *
+	 * @return configuration event.
+	 */
+	public ConfigurationEvent getEvent() {
+		return event;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationChange{" +
+				"typeClass=" + typeClass +
+				", key=" + event.getKey() +
+				", updateType=" + event.getUpdateType() +
+				'}';
+	}
+}
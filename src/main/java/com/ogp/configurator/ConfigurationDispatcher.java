@@ -0,0 +1,212 @@
+package com.ogp.configurator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import rx.Observer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ogp.configurator.ConfigurationEvent.ConfigType;
+import com.ogp.configurator.ConfigurationEvent.UpdateType;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+* Delivers configuration events to listeners on a dedicated thread through bounded ring buffer,
+* so slow listeners don't stall local replica updates on the TreeCache event thread.
+* Events are published from the single TreeCache event thread. When buffer is full
+* the overflow policy either blocks publisher or drops the event. Only added and updated
+* object events can be dropped, listeners never miss removals, initialization or connection events.
+*/
+public final class ConfigurationDispatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigurationDispatcher.class);
+
+	/**
+	 * Behaviour of the dispatcher when listeners don't keep up and the buffer is full.
+	 */
+	public enum OverflowPolicy {
+		/** Publisher waits for free slot, so local replica updates are delayed too. */
+		BLOCK,
+		/**
+		 * Added or updated object event is dropped for listeners, local replica is still updated.
+		 * Removed object and control events wait for free slot as with {@link #BLOCK}.
+		 */
+		DROP;
+	}
+
+	private final Observer<ConfigurationEvent> target;
+	private final OverflowPolicy overflowPolicy;
+	private final ExecutorService executor;
+	private final Disruptor<Slot> disruptor;
+	private final RingBuffer<Slot> ringBuffer;
+	private final AtomicLong droppedEvents;
+	private volatile long lastLagNanos;
+	private volatile long maxLagNanos;
+
+	@SuppressWarnings("unchecked")
+	ConfigurationDispatcher(Observer<ConfigurationEvent> target, int bufferSize, OverflowPolicy overflowPolicy) {
+		checkNotNull(target);
+		checkArgument(bufferSize > 0 && Integer.bitCount(bufferSize) == 1, "bufferSize must be a power of 2");
+		checkNotNull(overflowPolicy);
+		this.target = target;
+		this.overflowPolicy = overflowPolicy;
+		this.droppedEvents = new AtomicLong();
+		final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+				.setNameFormat("configuration-dispatcher-%d")
+				.setDaemon(true)
+				.build();
+		this.executor = Executors.newSingleThreadExecutor(threadFactory);
+		this.disruptor = new Disruptor<>(Slot.FACTORY, bufferSize, executor, ProducerType.SINGLE, new BlockingWaitStrategy());
+		this.disruptor.handleEventsWith(new Handler());
+		this.ringBuffer = disruptor.getRingBuffer();
+	}
+
+	void start() {
+		disruptor.start();
+	}
+
+	/**
+	 * Stops dispatcher thread after all already published events are delivered.
+	 */
+	void shutdown() {
+		disruptor.shutdown();
+		executor.shutdown();
+	}
+
+	/**
+	 * Queues event for delivery to listeners. Blocks or drops the event if the buffer is full,
+	 * according to the overflow policy.
+	 */
+	void dispatch(ConfigurationEvent event) {
+		final long sequence;
+		if (overflowPolicy == OverflowPolicy.BLOCK || !isDroppable(event)) {
+			sequence = ringBuffer.next();
+		} else {
+			try {
+				sequence = ringBuffer.tryNext();
+			} catch (InsufficientCapacityException e) {
+				droppedEvents.incrementAndGet();
+				logger.debug("Dispatch buffer is full, dropping event {}", event);
+				return;
+			}
+		}
+		try {
+			final Slot slot = ringBuffer.get(sequence);
+			slot.event = event;
+			slot.publishedNanos = System.nanoTime();
+		} finally {
+			ringBuffer.publish(sequence);
+		}
+	}
+
+	/**
+	 * Checks either listeners can miss the event, i.e. it is added or updated object, whose later
+	 * update or removal is delivered anyway.
+	 */
+	private static boolean isDroppable(ConfigurationEvent event) {
+		return event.getConfigType() == ConfigType.UNDEFINED
+				&& (event.getUpdateType() == UpdateType.ADDED || event.getUpdateType() == UpdateType.UPDATED);
+	}
+
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	public int getBufferSize() {
+		return ringBuffer.getBufferSize();
+	}
+
+	/**
+	 * Returns number of events queued but not yet delivered to listeners.
+	 *
+	 * @return queue depth.
+	 */
+	public int getQueueDepth() {
+		return (int) (ringBuffer.getBufferSize() - ringBuffer.remainingCapacity());
+	}
+
+	/**
+	 * Returns time the latest delivered event spent in the queue.
+	 *
+	 * @param unit time unit of the result
+	 * @return lag of the latest delivered event.
+	 */
+	public long getLag(TimeUnit unit) {
+		return unit.convert(lastLagNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns maximal time an event spent in the queue since start.
+	 *
+	 * @param unit time unit of the result
+	 * @return maximal lag.
+	 */
+	public long getMaxLag(TimeUnit unit) {
+		return unit.convert(maxLagNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns number of events dropped because the buffer was full, always zero for {@link OverflowPolicy#BLOCK}.
+	 *
+	 * @return number of dropped events.
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationDispatcher{" +
+				"overflowPolicy=" + overflowPolicy +
+				", bufferSize=" + getBufferSize() +
+				", queueDepth=" + getQueueDepth() +
+				", droppedEvents=" + getDroppedEvents() +
+				'}';
+	}
+
+	private class Handler implements EventHandler<Slot> {
+
+		@Override
+		public void onEvent(Slot slot, long sequence, boolean endOfBatch) {
+			final ConfigurationEvent event = slot.event;
+			slot.event = null;
+			final long lag = System.nanoTime() - slot.publishedNanos;
+			lastLagNanos = lag;
+			if (lag > maxLagNanos) {
+				maxLagNanos = lag;
+			}
+			try {
+				target.onNext(event);
+			} catch (RuntimeException e) {
+				logger.warn("Configuration listener failed on event {}", event, e);
+			}
+		}
+	}
+
+	private static final class Slot {
+		private static final EventFactory<Slot> FACTORY = new EventFactory<Slot>() {
+			@Override
+			public Slot newInstance() {
+				return new Slot();
+			}
+		};
+
+		private ConfigurationEvent event;
+		private long publishedNanos;
+	}
+}
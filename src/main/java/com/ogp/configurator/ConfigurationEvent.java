@@ -2,6 +2,9 @@ package com.ogp.configurator;
 
 import java.util.Objects;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
 /**
  * @author Anton Kharenko
  */
@@ -31,9 +34,9 @@ public class ConfigurationEvent {
 	
 	private final String key;
 
-	private Object oldValue;
+	private Supplier<?> oldValue;
 
-	private final Object newValue;
+	private final Supplier<?> newValue;
 
 	private final UpdateType updateType;
 	
@@ -50,6 +53,10 @@ public class ConfigurationEvent {
 	}
 	
 	public ConfigurationEvent(String type, Class<?> typeClass, String key, Object oldValue, Object newValue, UpdateType updateType) {
+		this(type, typeClass, key, ofNullable(oldValue), ofNullable(newValue), updateType);
+	}
+
+	private ConfigurationEvent(String type, Class<?> typeClass, String key, Supplier<?> oldValue, Supplier<?> newValue, UpdateType updateType) {
 		this.type = type;
 		this.typeClass = typeClass;
 		this.oldValue = oldValue;
@@ -59,6 +66,22 @@ public class ConfigurationEvent {
 		this.configType = ConfigType.UNDEFINED;
 	}
 
+	/**
+	 * Creates update event which new value is obtained from the given supplier on demand,
+	 * e.g. deserialized on the first access.
+	 */
+	static ConfigurationEvent lazy(String type, Class<?> typeClass, String key, Supplier<?> newValue, UpdateType updateType) {
+		return new ConfigurationEvent(type, typeClass, key, null, newValue, updateType);
+	}
+
+	private static Supplier<?> ofNullable(Object value) {
+		return value != null ? Suppliers.ofInstance(value) : null;
+	}
+
+	private static Object valueOf(Supplier<?> value) {
+		return value != null ? value.get() : null;
+	}
+
 	public String getType() {
 		return type;
 	}
@@ -72,17 +95,25 @@ public class ConfigurationEvent {
 	}
 	
 	public Object getOldValue() {
-		return oldValue;
+		return valueOf(oldValue);
 	}
 	
 	public void setOldValue(Object obj) {
-		oldValue = obj;
+		oldValue = ofNullable(obj);
+	}
+	
+	void setOldValueSupplier(Supplier<?> value) {
+		oldValue = value;
 	}
 	
 	public Object getNewValue() {
-		return newValue;
+		return valueOf(newValue);
 	}
 	
+	@SuppressWarnings("unchecked")
+	<T> Supplier<T> getNewValueSupplier() {
+		return (Supplier<T>) newValue;
+	}
 	
 
 	public UpdateType getUpdateType() {
@@ -106,15 +137,15 @@ public class ConfigurationEvent {
 		return Objects.equals(type, that.type) &&
 				Objects.equals(typeClass, that.typeClass) &&
 				Objects.equals(key, that.key) &&
-				Objects.equals(oldValue, that.oldValue) &&
-				Objects.equals(newValue, that.newValue) &&
+				Objects.equals(getOldValue(), that.getOldValue()) &&
+				Objects.equals(getNewValue(), that.getNewValue()) &&
 				Objects.equals(updateType, that.updateType) &&
 				Objects.equals(configType, that.configType);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(type, key, typeClass, oldValue, newValue, updateType, configType);
+		return Objects.hash(type, key, typeClass, getOldValue(), getNewValue(), updateType, configType);
 	}
 
 	@Override
@@ -123,8 +154,8 @@ public class ConfigurationEvent {
 				"type='" + type + '\'' +
 				", typeClass=" + typeClass +
 				", key=" + key +
-				", oldValue=" + oldValue +
-				", newValue=" + newValue +
+				", oldValue=" + getOldValue() +
+				", newValue=" + getNewValue() +
 				", updateType=" + updateType +
 				", configType=" + configType +
 				'}';
@@ -0,0 +1,62 @@
+package com.ogp.configurator;
+
+import java.util.Collection;
+
+/**
+ * Typed accessor bound directly to the local replica of a single registered configuration type.
+ * Type registration is resolved once when handle is obtained, so lookups through the handle
+ * don't do any class-keyed lookups, casts or checks. Obtain it once and keep for the hot read path.
+ *
+ * @param <T> configuration object class
+ * @see IConfiguration#handle(Class)
+ */
+public final class ConfigurationHandle<T> {
+
+	private final ConfigurationStore<T> store;
+
+	ConfigurationHandle(ConfigurationStore<T> store) {
+		this.store = store;
+	}
+
+	public Class<T> getTypeClass() {
+		return store.getTypeClass();
+	}
+
+	/**
+	 * Returns configuration object stored under the given key or {@code null} if such object doesn't exists.
+	 *
+	 * @param key configuration object key
+	 * @return configuration object or {@code null}
+	 */
+	public T get(String key) {
+		return store.get(key);
+	}
+
+	/**
+	 * Returns all configuration objects indexed under the given key by the given secondary index.
+	 *
+	 * @param index name of the index registered for the bound type
+	 * @param indexKey index key
+	 * @return unmodifiable collection of configuration objects.
+	 * @throws UnknownTypeException if index wasn't registered for the bound type.
+	 * @see IConfiguration#find(Class, String, Object)
+	 */
+	public Collection<T> find(String index, Object indexKey) {
+		return Configuration.getIndex(store, index).find(indexKey);
+	}
+
+	/**
+	 * Returns current immutable snapshot of all configuration objects of the bound type.
+	 *
+	 * @return current snapshot.
+	 * @see IConfiguration#snapshot(Class)
+	 */
+	public ConfigurationSnapshot<T> snapshot() {
+		return store.snapshot();
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationHandle{typeClass=" + store.getTypeClass() + '}';
+	}
+}
@@ -0,0 +1,126 @@
+package com.ogp.configurator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+* Secondary index over configuration objects of a single type.
+* Each configuration object is stored under all index keys returned by the key extractor.
+* Every index key has its own immutable bucket, so lookup is a single hash lookup
+* and an update copies only buckets of the changed object. When object moves to another
+* index key it is added to the new bucket before removal from the old one, so readers never miss it.
+*
+* @param <T> configuration object class
+*/
+final class ConfigurationIndex<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigurationIndex.class);
+
+	private final String name;
+	private final Function<? super T, ? extends Iterable<?>> keyExtractor;
+	private final ConcurrentMap<Object, ImmutableMap<String, T>> buckets;
+
+	ConfigurationIndex(String name, Function<? super T, ? extends Iterable<?>> keyExtractor) {
+		this.name = name;
+		this.keyExtractor = keyExtractor;
+		this.buckets = new ConcurrentHashMap<>(16, 0.75f, 1);
+	}
+
+	String getName() {
+		return name;
+	}
+
+	Collection<T> find(Object indexKey) {
+		final ImmutableMap<String, T> bucket = buckets.get(indexKey);
+		if (bucket == null) {
+			return ImmutableList.of();
+		}
+		return bucket.values();
+	}
+
+	Set<Object> keys() {
+		return Collections.unmodifiableSet(buckets.keySet());
+	}
+
+	/**
+	 * Moves configuration object stored under the given key from index keys of old value
+	 * to index keys of new value. Either value can be {@code null}.
+	 */
+	void update(String key, T oldValue, T newValue) {
+		final Set<Object> newIndexKeys = indexKeys(newValue);
+		for (Object indexKey : newIndexKeys) {
+			add(indexKey, key, newValue);
+		}
+		for (Object indexKey : indexKeys(oldValue)) {
+			if (!newIndexKeys.contains(indexKey)) {
+				remove(indexKey, key);
+			}
+		}
+	}
+
+	private Set<Object> indexKeys(T value) {
+		if (value == null) {
+			return ImmutableSet.of();
+		}
+		try {
+			final Iterable<?> indexKeys = keyExtractor.apply(value);
+			if (indexKeys == null) {
+				return ImmutableSet.of();
+			}
+			final ImmutableSet.Builder<Object> result = ImmutableSet.builder();
+			for (Object indexKey : indexKeys) {
+				if (indexKey != null) {
+					result.add(indexKey);
+				}
+			}
+			return result.build();
+		} catch (RuntimeException e) {
+			logger.warn("Index {} failed to extract keys from {}, object is not indexed.", name, value, e);
+			return ImmutableSet.of();
+		}
+	}
+
+	private void add(Object indexKey, String key, T value) {
+		final ImmutableMap<String, T> bucket = buckets.get(indexKey);
+		final ImmutableMap.Builder<String, T> updated = ImmutableMap.builder();
+		if (bucket != null) {
+			for (Map.Entry<String, T> entry : bucket.entrySet()) {
+				if (!entry.getKey().equals(key)) {
+					updated.put(entry);
+				}
+			}
+		}
+		updated.put(key, value);
+		buckets.put(indexKey, updated.build());
+	}
+
+	private void remove(Object indexKey, String key) {
+		final ImmutableMap<String, T> bucket = buckets.get(indexKey);
+		if (bucket == null || !bucket.containsKey(key)) {
+			return;
+		}
+		if (bucket.size() == 1) {
+			buckets.remove(indexKey);
+			return;
+		}
+		final ImmutableMap.Builder<String, T> updated = ImmutableMap.builder();
+		for (Map.Entry<String, T> entry : bucket.entrySet()) {
+			if (!entry.getKey().equals(key)) {
+				updated.put(entry);
+			}
+		}
+		buckets.put(indexKey, updated.build());
+	}
+}
@@ -1,14 +1,59 @@
 package com.ogp.configurator;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
+import org.apache.curator.framework.api.transaction.OperationType;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.framework.state.ConnectionState;
 import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.BadVersionException;
+import org.apache.zookeeper.KeeperException.Code;
+import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.KeeperException.NodeExistsException;
+import org.apache.zookeeper.KeeperException.NotEmptyException;
+import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ogp.configurator.ChunkManifest.ChunkSource;
+import com.ogp.configurator.serializer.IPatchSerializer;
 import com.ogp.configurator.serializer.ISerializer;
 
 /**
@@ -19,12 +64,49 @@ import com.ogp.configurator.serializer.ISerializer;
 */
 public class ConfigurationManager extends ConfigServiceCore implements IConfigurationManagement {
 	private static final Logger logger = LoggerFactory.getLogger(ConfigurationManager.class);
+	public static final int DEFAULT_TRANSACTION_SIZE = 100;
+	public static final int DEFAULT_LIST_CONCURRENCY = 64;
+	public static final int DEFAULT_CHUNK_SIZE = 512 * 1024;
+	private static final int ANY_VERSION = Integer.MIN_VALUE;
+	private static final int CHUNK_READ_ATTEMPTS = 3;
+	private static final int PATCH_COMPACTION_DIVISOR = 2;
+	private static final byte[] PLACEHOLDER = new byte[0];
 	
 	private volatile boolean isConnected;
+	private final int transactionSize;
+	private final int listConcurrency;
+	private final Executor listExecutor;
+	private final int chunkSize;
+	private final TreeCache replica; // owned by the manager, closed by close()
+	private volatile boolean replicaInitialized;
+	private final ConnectionStateListener connectionListener;
 	private ConfigurationManager(Builder builder) {
 		super(builder);
 		isConnected = false;
-		
+		transactionSize = builder.transactionSize;
+		listConcurrency = builder.listConcurrency;
+		listExecutor = builder.listExecutor != null ? builder.listExecutor : newListExecutor();
+		chunkSize = builder.chunkSize;
+		replica = builder.localReads ? new TreeCache(getCurator(), configEnvironmentPath) : null;
+		replicaInitialized = false;
+		connectionListener = new ConnectionStateListener() {
+			@Override
+			public void stateChanged(CuratorFramework client, ConnectionState newState) {
+				isConnected = newState.isConnected();
+			}
+		};
+	}
+	
+	/**
+	 * Default deserialization pool, one daemon thread per processor, idle threads are stopped.
+	 */
+	private static Executor newListExecutor() {
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactoryBuilder().setNameFormat("configuration-list-%d").setDaemon(true).build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 	
 	public static Builder newBuilder(CuratorFramework zkClient, ISerializer serializer, String environment) {
@@ -34,13 +116,34 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 	@Override
 	public void start() {
 		isConnected = getCurator().getZookeeperClient().isConnected();
-		getCurator().getConnectionStateListenable().addListener(new ConnectionStateListener() {
-			@Override
-			public void stateChanged(CuratorFramework client, ConnectionState newState) {
-				isConnected = newState.isConnected();
+		getCurator().getConnectionStateListenable().addListener(connectionListener);
+		if (replica != null) {
+			replica.getListenable().addListener(new TreeCacheListener() {
+				@Override
+				public void childEvent(CuratorFramework client, TreeCacheEvent event) {
+					if (event.getType() == TreeCacheEvent.Type.INITIALIZED) {
+						logger.debug("Local replica initialized, serving get() and list() from it");
+						replicaInitialized = true;
+					}
+				}
+			});
+			try {
+				replica.start();
+			} catch (Exception e) {
+				logger.error("Failed to start local replica", e);
+				throw new ConnectionLossException(e);
 			}
-		});
+		}
+	}
 
+	@Override
+	public void close() {
+		getCurator().getConnectionStateListenable().removeListener(connectionListener);
+		isConnected = false;
+		if (replica != null) {
+			replicaInitialized = false;
+			replica.close();
+		}
 	}
 
 	@Override
@@ -60,12 +163,12 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 		logger.trace("save() {}", value.toString());
 		final String type = getType(value.getClass());
 		final byte[] configSerialized = serialize(value);
-		final String configEntityPath = buildPath(type, key);
+		final String configEntityPath = getPath(type, key);
 		try {
-			if (getCurator().checkExists().forPath(configEntityPath) == null)
-				getCurator().create().forPath(configEntityPath, configSerialized);
+			if (configSerialized.length > chunkSize)
+				writeChunked(configEntityPath, configSerialized, ANY_VERSION);
 			else
-				getCurator().setData().forPath(configEntityPath, configSerialized);
+				upsert(configEntityPath, configSerialized);
 		} catch (Exception e) {
 			throw new InvalidAccessException(e);
 		}
@@ -73,6 +176,201 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 		
 	}
 
+	/**
+	 * Updates existent node, which is a single round trip, and creates it only if it doesn't exist.
+	 * Type node is created together with the object node if it was removed.
+	 */
+	private void upsert(String path, byte[] data) throws Exception {
+		try {
+			removeChunks(path, getCurator().setData().forPath(path, data));
+		} catch (NoNodeException e) {
+			try {
+				getCurator().create().creatingParentsIfNeeded().forPath(path, data);
+			} catch (NodeExistsException e1) {
+				// created concurrently, overwrite it as an update
+				removeChunks(path, getCurator().setData().forPath(path, data));
+			}
+		}
+	}
+
+	/**
+	 * Writes data larger than chunk size as chunks under the object node, the node itself keeps
+	 * {@link ChunkManifest}. Chunks of a new generation are created first, then the manifest is switched
+	 * and chunks of the previous value are removed in one transaction, so readers see either the old
+	 * or the new value. Chunks can't share a request with the manifest, since ZooKeeper limits the size
+	 * of the whole multi request as well. New node is created empty to hold the chunks, empty node reads
+	 * as absent; if the writer dies before the manifest is set, the empty node is left behind and is
+	 * replaced by the next {@code save()} of the key.
+	 *
+	 * @param expectedVersion version of the node to replace, {@link VersionedValue#NO_VERSION} if node must not exist
+	 * 		or {@link #ANY_VERSION} to overwrite any value
+	 * @return {@code false} if node doesn't have the expected version.
+	 */
+	private boolean writeChunked(String path, byte[] data, int expectedVersion) throws Exception {
+		final ChunkManifest manifest = ChunkManifest.of(data, chunkSize);
+		final Stat stat = getCurator().checkExists().forPath(path);
+		if (stat == null) {
+			if (expectedVersion != ANY_VERSION && expectedVersion != VersionedValue.NO_VERSION)
+				return false;
+			try {
+				getCurator().create().creatingParentsIfNeeded().forPath(path, PLACEHOLDER);
+			} catch (NodeExistsException e) {
+				if (expectedVersion == VersionedValue.NO_VERSION)
+					return false;
+				// created concurrently, overwrite it as an update
+				return writeChunked(path, data, expectedVersion);
+			}
+			createChunks(path, data, manifest);
+			try {
+				// version of the just created node
+				getCurator().setData().withVersion(0).forPath(path, manifest.toBytes());
+			} catch (BadVersionException | NoNodeException e) {
+				// changed concurrently, chunks of this write are never referenced
+				deleteChunks(path, manifest);
+				if (expectedVersion != ANY_VERSION)
+					return false;
+				return writeChunked(path, data, expectedVersion);
+			}
+			logger.trace("writeChunked() created path={}, {}", path, manifest);
+			return true;
+		}
+		if (expectedVersion != ANY_VERSION && expectedVersion != stat.getVersion())
+			return false;
+		
+		final List<String> previous = getCurator().getChildren().forPath(path);
+		createChunks(path, data, manifest);
+		CuratorTransactionFinal operations = getCurator().inTransaction()
+				.setData().withVersion(stat.getVersion()).forPath(path, manifest.toBytes()).and();
+		for (String child : previous) {
+			operations = operations.delete().forPath(path + CONFIG_PATH_DELIMITER + child).and();
+		}
+		try {
+			operations.commit();
+		} catch (BadVersionException | NoNodeException e) {
+			// changed concurrently, chunks of this write are never referenced
+			deleteChunks(path, manifest);
+			if (expectedVersion != ANY_VERSION)
+				return false;
+			return writeChunked(path, data, expectedVersion);
+		}
+		logger.trace("writeChunked() updated path={}, {}", path, manifest);
+		return true;
+	}
+
+	private void createChunks(String path, byte[] data, ChunkManifest manifest) throws Exception {
+		for (int i = 0; i < manifest.getChunks(); i++) {
+			getCurator().create().forPath(path + CONFIG_PATH_DELIMITER + manifest.chunkName(i), manifest.chunk(data, i));
+		}
+	}
+
+	private void deleteChunks(String path, ChunkManifest manifest) throws Exception {
+		for (int i = 0; i < manifest.getChunks(); i++) {
+			deleteQuietly(path + CONFIG_PATH_DELIMITER + manifest.chunkName(i));
+		}
+	}
+
+	/**
+	 * Removes chunks left by a chunked value the node had before it was overwritten with plain data.
+	 */
+	private void removeChunks(String path, Stat stat) throws Exception {
+		if (stat.getNumChildren() == 0)
+			return;
+		final List<String> children;
+		try {
+			children = getCurator().getChildren().forPath(path);
+		} catch (NoNodeException e) {
+			// removed concurrently together with chunks
+			return;
+		}
+		for (String child : children) {
+			deleteQuietly(path + CONFIG_PATH_DELIMITER + child);
+		}
+	}
+
+	private void deleteQuietly(String path) throws Exception {
+		try {
+			getCurator().delete().forPath(path);
+		} catch (NoNodeException e) {
+			// already removed
+		}
+	}
+
+	@Override
+	public <T> void saveAll(Map<String, T> values) {
+		if (values == null)
+			throw new UnknownTypeException("values is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		// Validate and serialize everything before the first transaction
+		final Map<String, Set<String>> existentKeys = new HashMap<>();
+		final List<Write> writes = new ArrayList<>(values.size());
+		for (Map.Entry<String, T> entry : values.entrySet()) {
+			final String key = entry.getKey();
+			final T value = entry.getValue();
+			if (value == null)
+				throw new UnknownTypeException("value is null");
+			if (key == null)
+				throw new UnknownTypeException("key is null");
+			if (!isTypeConfigured(value.getClass()))
+				throw new UnknownTypeException("Specified "+ value.getClass().toString()+" not registred");
+			
+			final String type = getType(value.getClass());
+			Set<String> keys = existentKeys.get(type);
+			if (keys == null) {
+				keys = listKeys(type);
+				existentKeys.put(type, keys);
+			}
+			final byte[] data = serialize(value);
+			if (data.length > chunkSize)
+				throw new InvalidAccessException("Object " + key + " of " + data.length + " bytes is too large for transaction, save it with save()");
+			writes.add(new Write(getPath(type, key), data, keys.contains(key)));
+		}
+		
+		try {
+			for (int from = 0; from < writes.size(); from += transactionSize) {
+				final List<Write> chunk = writes.subList(from, Math.min(from + transactionSize, writes.size()));
+				CuratorTransaction transaction = getCurator().inTransaction();
+				CuratorTransactionFinal operations = null;
+				for (Write write : chunk) {
+					if (write.exists)
+						operations = transaction.setData().forPath(write.path, write.data).and();
+					else
+						operations = transaction.create().forPath(write.path, write.data).and();
+					transaction = operations;
+				}
+				for (CuratorTransactionResult result : operations.commit()) {
+					if (result.getType() == OperationType.SET_DATA)
+						removeChunks(result.getForPath(), result.getResultStat());
+				}
+				logger.trace("saveAll() committed {} objects", chunk.size());
+			}
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+	}
+	
+	/**
+	 * Lists keys of the type, type node is created if it doesn't exist, or was removed since it was ensured.
+	 */
+	private Set<String> listKeys(String type) {
+		try {
+			return new HashSet<>(getCurator().getChildren().forPath(ensureTypePath(type)));
+		} catch (NoNodeException e) {
+			logger.debug("listKeys() type={} was removed, creating it again", type);
+			forgetTypePath(type);
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+		try {
+			return new HashSet<>(getCurator().getChildren().forPath(ensureTypePath(type)));
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+	}
+
 	@Override
 	public <T> void delete(Class<T> type, String key) {
 		if (type == null)
@@ -88,12 +386,88 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
 		
 		final String path = getPath(getType(type), key);
+		try {
+			deleteNode(path);
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+
+	}
+
+	/**
+	 * Deletes object node, chunked value is deleted together with its chunks in one transaction.
+	 */
+	private void deleteNode(String path) throws Exception {
 		try {
 			getCurator().delete().forPath(path);
+		} catch (NotEmptyException e) {
+			addDelete(getCurator().inTransaction(), path).commit();
+		}
+	}
+
+	/**
+	 * Adds deletion of object node and its chunks to the transaction.
+	 */
+	private CuratorTransactionFinal addDelete(CuratorTransaction transaction, String path) throws Exception {
+		List<String> children;
+		try {
+			children = getCurator().getChildren().forPath(path);
+		} catch (NoNodeException e) {
+			// let the transaction fail as for any other missing node
+			children = new ArrayList<>(0);
+		}
+		for (String child : children) {
+			transaction = transaction.delete().forPath(path + CONFIG_PATH_DELIMITER + child).and();
+		}
+		return transaction.delete().forPath(path).and();
+	}
+
+	@Override
+	public <T> void deleteAll(Class<T> type, Collection<String> keys) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (keys == null)
+			throw new UnknownTypeException("keys is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(type))
+			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
+		
+		final String configType = getType(type);
+		final List<String> paths = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			if (key == null)
+				throw new UnknownTypeException("key is null");
+			paths.add(getPath(configType, key));
+		}
+		
+		try {
+			for (int from = 0; from < paths.size(); from += transactionSize) {
+				final List<String> chunk = paths.subList(from, Math.min(from + transactionSize, paths.size()));
+				try {
+					deleteTransaction(chunk, false).commit();
+				} catch (NotEmptyException e) {
+					// some objects are chunked, nothing was deleted yet
+					deleteTransaction(chunk, true).commit();
+				}
+				logger.trace("deleteAll() committed {} objects", chunk.size());
+			}
 		} catch (Exception e) {
 			throw new InvalidAccessException(e);
 		}
+	}
 
+	private CuratorTransactionFinal deleteTransaction(List<String> paths, boolean withChunks) throws Exception {
+		CuratorTransaction transaction = getCurator().inTransaction();
+		CuratorTransactionFinal operations = null;
+		for (String path : paths) {
+			operations = withChunks ? addDelete(transaction, path) : transaction.delete().forPath(path).and();
+			transaction = operations;
+		}
+		return operations;
 	}
 
 	@Override
@@ -111,19 +485,250 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
 		
 		final String path = getPath(getType(type), key);
+		byte[] config;
+		if (replicaInitialized) {
+			config = readReplica(type, path, replica.getCurrentData(path));
+		} else {
+			try {
+				config = readData(type, path, getCurator().getData().forPath(path), null);
+			} catch (NoNodeException e) {
+				config = null;
+			} catch (Exception e) {
+				throw new InvalidAccessException(e);
+			}
+		}
+		if (config == null) {
+			logger.debug("get() not exist ConfigEntity type={}, key={}, path={}", type, key, path);
+			return null;
+		}
+		final T configDeserialized = deserialize(config, type);
+		logger.trace("get() ConfigEntity type={},key={}, json:={};", type, key, new String(config));
+		return configDeserialized;
+	}
+
+	@Override
+	public <T> VersionedValue<T> getWithVersion(Class<T> type, String key) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
 		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(type))
+			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
+		
+		final String path = getPath(getType(type), key);
+		final Stat stat = new Stat();
+		byte[] config;
 		try {
-			if (getCurator().checkExists().forPath(path) == null) {
-				logger.debug("get() not exist ConfigEntity type={}, key={}, path={}", type, key, path);
-				return null;
+			config = readData(type, path, getCurator().getData().storingStatIn(stat).forPath(path), stat);
+		} catch (NoNodeException e) {
+			config = null;
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+		if (config == null) {
+			logger.debug("getWithVersion() not exist ConfigEntity type={}, key={}, path={}", type, key, path);
+			return null;
+		}
+		return new VersionedValue<T>(deserialize(config, type), stat.getVersion());
+	}
+
+	/**
+	 * Resolves node data into serialized object: chunked value is assembled from its chunks, patch record
+	 * is applied to its base and plain node data is returned as is. If chunks or base were replaced
+	 * by concurrent write, the node is read again.
+	 *
+	 * @param stat stat of the node to update on repeated read, may be {@code null}
+	 * @return serialized object or {@code null} if chunks or base are still missing after repeated reads.
+	 * @throws NoNodeException if node was removed
+	 */
+	private byte[] readData(Class<?> type, final String path, byte[] data, Stat stat) throws Exception {
+		final ChunkSource source = new ChunkSource() {
+			@Override
+			public byte[] getChunk(String name) throws Exception {
+				try {
+					return getCurator().getData().forPath(path + CONFIG_PATH_DELIMITER + name);
+				} catch (NoNodeException e) {
+					return null;
+				}
+			}
+		};
+		for (int attempt = 0; attempt < CHUNK_READ_ATTEMPTS; attempt++) {
+			final byte[] resolved = resolve(type, data, source);
+			if (resolved != null)
+				return resolved;
+			data = getCurator().getData().storingStatIn(stat != null ? stat : new Stat()).forPath(path);
+		}
+		logger.debug("Chunks of path={} are not complete, value is being written", path);
+		return null;
+	}
+
+	/**
+	 * Returns data of the node in local replica, chunked and patched values are resolved from replica as well.
+	 *
+	 * @return serialized object or {@code null} if node doesn't exist, isn't fetched yet or its chunks are not complete.
+	 */
+	private byte[] readReplica(Class<?> type, String path, ChildData node) {
+		if (node == null || node.getData() == null)
+			return null;
+		try {
+			return resolve(type, node.getData(), ChunkManifest.treeCacheSource(replica, path));
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+	}
+
+	/**
+	 * @param source children of the node
+	 * @return serialized object or {@code null} if node is a placeholder of chunked value, or chunks or base are missing.
+	 */
+	private byte[] resolve(Class<?> type, byte[] data, ChunkSource source) throws Exception {
+		if (data.length == 0)
+			return null;
+		final ChunkManifest manifest = ChunkManifest.parse(data);
+		if (manifest != null)
+			return manifest.assemble(source);
+		final PatchRecord record = PatchRecord.parse(data);
+		if (record == null)
+			return data;
+		final byte[] base = source.getChunk(record.getBaseName());
+		if (base == null)
+			return null;
+		final IPatchSerializer serializer = getPatchSerializer(type);
+		return serializer.writeDocument(serializer.applyPatch(serializer.readDocument(base), record.getPatch()));
+	}
+
+	@Override
+	public <T> boolean saveIfVersion(String key, T value, int expectedVersion) {
+		if (value == null)
+			throw new UnknownTypeException("value is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(value.getClass()))
+			throw new UnknownTypeException("Specified "+ value.getClass().toString()+" not registred");
+		
+		final String path = getPath(getType(value.getClass()), key);
+		final byte[] data = serialize(value);
+		try {
+			if (data.length > chunkSize) {
+				if (!writeChunked(path, data, expectedVersion)) {
+					logger.debug("saveIfVersion() conflict on path={}, expectedVersion={}", path, expectedVersion);
+					return false;
+				}
+			} else if (expectedVersion == VersionedValue.NO_VERSION) {
+				getCurator().create().creatingParentsIfNeeded().forPath(path, data);
+			} else {
+				replace(path, data, expectedVersion);
+			}
+		} catch (BadVersionException | NoNodeException | NodeExistsException e) {
+			logger.debug("saveIfVersion() conflict on path={}, expectedVersion={}", path, expectedVersion);
+			return false;
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+		return true;
+	}
+
+	@Override
+	public <T> boolean patch(Class<T> type, String key, String mergePatch, int expectedVersion) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+		if (mergePatch == null)
+			throw new UnknownTypeException("mergePatch is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(type))
+			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
+		
+		final String path = getPath(getType(type), key);
+		final IPatchSerializer serializer = getPatchSerializer(type);
+		final byte[] patch = serializer.readPatch(mergePatch);
+		try {
+			final Stat stat = new Stat();
+			final byte[] data = getCurator().getData().storingStatIn(stat).forPath(path);
+			// placeholder of a chunked value being created doesn't exist yet
+			if (stat.getVersion() != expectedVersion || data.length == 0 || !writePatch(type, path, data, patch, expectedVersion)) {
+				logger.debug("patch() conflict on path={}, expectedVersion={}", path, expectedVersion);
+				return false;
 			}
-			final byte[] config = getCurator().getData().forPath(path);
-			final T configDeserialized = deserialize(config, type);
-			logger.trace("get() ConfigEntity type={},key={}, json:={};", type, key, new String(config));
-			return configDeserialized;
+		} catch (BadVersionException | NoNodeException | NodeExistsException e) {
+			logger.debug("patch() conflict on path={}, expectedVersion={}", path, expectedVersion);
+			return false;
 		} catch (Exception e) {
 			throw new InvalidAccessException(e);
 		}
+		logger.trace("patch() ConfigEntity type={}, key={}, patch={}", type, key, mergePatch);
+		return true;
+	}
+
+	/**
+	 * Writes patch of the node read with the given version. The first patch moves the object to the base node,
+	 * later ones update only the accumulated patch, so monitors fetch just the patch. Once the accumulated patch
+	 * is larger than half of the base, or can't be combined with the new one, the patched object is written
+	 * as a whole and the base is removed.
+	 *
+	 * @return {@code false} if node doesn't have the expected version or was changed while it was read.
+	 */
+	private boolean writePatch(Class<?> type, String path, byte[] data, byte[] patch, int version) throws Exception {
+		final IPatchSerializer serializer = getPatchSerializer(type);
+		final PatchRecord record = PatchRecord.parse(data);
+		if (record == null) {
+			if (ChunkManifest.isManifest(data)) {
+				// too large for a single base node, patched object is written as a whole
+				final byte[] value = readData(type, path, data, null);
+				return value != null && replace(path, serializer.writeDocument(serializer.applyPatch(serializer.readDocument(value), patch)), version);
+			}
+			final PatchRecord first = PatchRecord.of(patch);
+			getCurator().inTransaction()
+					.create().forPath(path + CONFIG_PATH_DELIMITER + first.getBaseName(), data).and()
+					.setData().withVersion(version).forPath(path, first.toBytes()).and()
+					.commit();
+			return true;
+		}
+		
+		final String basePath = path + CONFIG_PATH_DELIMITER + record.getBaseName();
+		final byte[] base = getCurator().getData().forPath(basePath);
+		final byte[] combined = serializer.combinePatches(record.getPatch(), patch);
+		if (combined != null && combined.length <= base.length / PATCH_COMPACTION_DIVISOR) {
+			getCurator().setData().withVersion(version).forPath(path, record.withPatch(combined).toBytes());
+			return true;
+		}
+		final Object document = serializer.applyPatch(serializer.applyPatch(serializer.readDocument(base), record.getPatch()), patch);
+		final byte[] value = serializer.writeDocument(document);
+		if (value.length > chunkSize)
+			return writeChunked(path, value, version);
+		getCurator().inTransaction()
+				.setData().withVersion(version).forPath(path, value).and()
+				.delete().forPath(basePath).and()
+				.commit();
+		logger.trace("writePatch() compacted path={}, {}", path, record);
+		return true;
+	}
+
+	/**
+	 * Replaces value of the node having the given version.
+	 *
+	 * @return {@code false} if node doesn't have the given version.
+	 */
+	private boolean replace(String path, byte[] data, int version) throws Exception {
+		if (data.length > chunkSize)
+			return writeChunked(path, data, version);
+		removeChunks(path, getCurator().setData().withVersion(version).forPath(path, data));
+		return true;
 	}
 
 	@Override
@@ -135,25 +740,419 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
 		
 		final String pathForType = getPathForType(getType(type));
+		if (replicaInitialized) {
+			return listReplica(type, pathForType);
+		}
+		final List<String> keys;
 		try {
-			if (getCurator().checkExists().forPath(pathForType) == null) {
-				logger.debug("list() not exist ConfigEntity type={}, path={}", type, pathForType);
-				return new ArrayList<T>(0);
+			keys = getCurator().getChildren().forPath(pathForType);
+		} catch (NoNodeException e) {
+			logger.debug("list() not exist ConfigEntity type={}, path={}", type, pathForType);
+			return new ArrayList<T>(0);
+		} catch (Exception e) {
+			throw new InvalidAccessException(e);
+		}
+		
+		try {
+			return new ParallelRead<>(type, pathForType, keys).read().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InvalidAccessException(e);
+		} catch (ExecutionException e) {
+			throw Throwables.propagate(e.getCause());
+		}
+	}
+
+	private <T> List<T> listReplica(Class<T> type, String pathForType) {
+		final Map<String, ChildData> children = replica.getCurrentChildren(pathForType);
+		if (children == null) {
+			logger.debug("list() not exist ConfigEntity type={}, path={}", type, pathForType);
+			return new ArrayList<T>(0);
+		}
+		final List<T> configList = new ArrayList<T>(children.size());
+		for (ChildData child : children.values()) {
+			// data is null if node was just created and not fetched yet
+			final byte[] data = readReplica(type, child.getPath(), child);
+			if (data != null)
+				configList.add(deserialize(data, type));
+		}
+		return configList;
+	}
+
+	/**
+	 * Reads nodes of a single {@code list()} or {@code listAsync()} call. Up to {@code listConcurrency} getData
+	 * requests are in flight at once, node data is deserialized on the list executor as responses arrive.
+	 */
+	private class ParallelRead<T> {
+		private final Class<T> type;
+		private final String pathForType;
+		private final List<String> keys;
+		private final Semaphore window;
+		private final AtomicInteger pending;
+		private final AtomicReferenceArray<T> values;
+		private final AtomicReference<Throwable> failure;
+		private final SettableFuture<List<T>> result;
+
+		private ParallelRead(Class<T> type, String pathForType, List<String> keys) {
+			this.type = type;
+			this.pathForType = pathForType;
+			this.keys = keys;
+			this.window = new Semaphore(listConcurrency);
+			this.pending = new AtomicInteger(keys.size());
+			this.values = new AtomicReferenceArray<>(keys.size());
+			this.failure = new AtomicReference<>();
+			this.result = SettableFuture.create();
+		}
+
+		/**
+		 * Requests all nodes, blocking while the window is full.
+		 *
+		 * @return future completed once all responses are deserialized.
+		 */
+		private ListenableFuture<List<T>> read() {
+			if (keys.isEmpty()) {
+				result.set(values());
+				return result;
+			}
+			try {
+				for (int i = 0; i < keys.size(); i++) {
+					request(pathForType + CONFIG_PATH_DELIMITER + keys.get(i), i);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				result.setException(new InvalidAccessException(e));
+			} catch (Exception e) {
+				result.setException(new InvalidAccessException(e));
+			}
+			return result;
+		}
+
+		private void request(final String path, final int index) throws Exception {
+			window.acquire();
+			if (failure.get() != null) {
+				window.release();
+				done();
+				return;
 			}
-			final List<String> keys = getCurator().getChildren().forPath(pathForType);
-			byte[] config;
-			final List<T> configList = new ArrayList<T>(keys.size());
-			for (String keyPath : keys) {
-				config = getCurator().getData().forPath(pathForType+CONFIG_PATH_DELIMITER+keyPath);
-				logger.trace("list() adding ConfigEntity type={},key={}, json:={};", type, keyPath, new String(config));
-				configList.add(deserialize(config, type));
+			try {
+				getCurator().getData().inBackground(new BackgroundCallback() {
+					@Override
+					public void processResult(CuratorFramework client, CuratorEvent event) {
+						window.release();
+						respond(event, index);
+					}
+				}).forPath(path);
+			} catch (Exception e) {
+				window.release();
+				throw e;
+			}
+		}
+
+		private void respond(final CuratorEvent event, final int index) {
+			if (event.getResultCode() == Code.NONODE.intValue()) {
+				// deleted while listing
+				logger.debug("list() skipping removed ConfigEntity path={}", event.getPath());
+				done();
+			} else if (event.getResultCode() != Code.OK.intValue()) {
+				failure.compareAndSet(null, KeeperException.create(Code.get(event.getResultCode()), event.getPath()));
+				done();
+			} else {
+				try {
+					listExecutor.execute(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								final byte[] data = readData(type, event.getPath(), event.getData(), null);
+								if (data != null) {
+									values.set(index, deserialize(data, type));
+									logger.trace("list() adding ConfigEntity type={},path={};", type, event.getPath());
+								}
+							} catch (NoNodeException e) {
+								logger.debug("list() skipping removed ConfigEntity path={}", event.getPath());
+							} catch (Exception e) {
+								failure.compareAndSet(null, e);
+							} finally {
+								done();
+							}
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					failure.compareAndSet(null, e);
+					done();
+				}
+			}
+		}
+
+		/**
+		 * Completes the read when the last node is done.
+		 */
+		private void done() {
+			if (pending.decrementAndGet() > 0)
+				return;
+			final Throwable e = failure.get();
+			if (e != null)
+				result.setException(new InvalidAccessException(e));
+			else
+				result.set(values());
+		}
+
+		private List<T> values() {
+			final List<T> configList = new ArrayList<T>(values.length());
+			for (int i = 0; i < values.length(); i++) {
+				final T value = values.get(i);
+				if (value != null)
+					configList.add(value);
 			}
 			return configList;
+		}
+	}
+
+	@Override
+	public <T> ListenableFuture<Void> saveAsync(String key, T value) {
+		if (value == null)
+			throw new UnknownTypeException("value is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(value.getClass()))
+			throw new UnknownTypeException("Specified "+ value.getClass().toString()+" not registred");
+		
+		final String path = getPath(getType(value.getClass()), key);
+		final byte[] data = serialize(value);
+		final SettableFuture<Void> result = SettableFuture.create();
+		if (data.length > chunkSize) {
+			// chunks are written by several requests, done on the list executor
+			execute(result, new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					writeChunked(path, data, ANY_VERSION);
+					return null;
+				}
+			});
+			return result;
+		}
+		try {
+			getCurator().setData().inBackground(new Callback<Void>(result) {
+				@Override
+				protected void onResult(CuratorEvent event) throws Exception {
+					if (event.getResultCode() == Code.OK.intValue()) {
+						removeChunksAsync(path, event.getStat(), result);
+					} else if (event.getResultCode() == Code.NONODE.intValue()) {
+						createAsync(path, data, result);
+					} else {
+						failed(event);
+					}
+				}
+			}).forPath(path, data);
 		} catch (Exception e) {
-			throw new InvalidAccessException(e);
+			result.setException(new InvalidAccessException(e));
+		}
+		return result;
+	}
+	
+	private void createAsync(final String path, final byte[] data, final SettableFuture<Void> result) throws Exception {
+		getCurator().create().creatingParentsIfNeeded().inBackground(new Callback<Void>(result) {
+			@Override
+			protected void onResult(CuratorEvent event) throws Exception {
+				if (event.getResultCode() == Code.OK.intValue()) {
+					result.set(null);
+				} else if (event.getResultCode() == Code.NODEEXISTS.intValue()) {
+					// created concurrently, overwrite it as an update
+					getCurator().setData().inBackground(new Callback<Void>(result) {
+						@Override
+						protected void onResult(CuratorEvent event) {
+							if (event.getResultCode() == Code.OK.intValue())
+								removeChunksAsync(path, event.getStat(), result);
+							else
+								failed(event);
+						}
+					}).forPath(path, data);
+				} else {
+					failed(event);
+				}
+			}
+		}).forPath(path, data);
+	}
+
+	/**
+	 * Completes save, after chunks left by previous chunked value are removed on the list executor.
+	 */
+	private void removeChunksAsync(final String path, final Stat stat, SettableFuture<Void> result) {
+		if (stat == null || stat.getNumChildren() == 0) {
+			result.set(null);
+			return;
+		}
+		execute(result, new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				removeChunks(path, stat);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Completes the given future with result of blocking task run on the list executor.
+	 * Used for multi-step operations on chunked values, which must not block Curator event thread.
+	 */
+	private <V> void execute(final SettableFuture<V> result, final Callable<V> task) {
+		try {
+			listExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						result.set(task.call());
+					} catch (RuntimeException e) {
+						result.setException(e);
+					} catch (Exception e) {
+						result.setException(new InvalidAccessException(e));
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			result.setException(e);
 		}
 	}
 
+	@Override
+	public <T> ListenableFuture<Void> deleteAsync(Class<T> type, String key) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(type))
+			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
+		
+		final String path = getPath(getType(type), key);
+		final SettableFuture<Void> result = SettableFuture.create();
+		try {
+			getCurator().delete().inBackground(new Callback<Void>(result) {
+				@Override
+				protected void onResult(CuratorEvent event) {
+					if (event.getResultCode() == Code.OK.intValue()) {
+						result.set(null);
+					} else if (event.getResultCode() == Code.NOTEMPTY.intValue()) {
+						// chunked value
+						execute(result, new Callable<Void>() {
+							@Override
+							public Void call() throws Exception {
+								deleteNode(path);
+								return null;
+							}
+						});
+					} else {
+						failed(event);
+					}
+				}
+			}).forPath(path);
+		} catch (Exception e) {
+			result.setException(new InvalidAccessException(e));
+		}
+		return result;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> getAsync(final Class<T> type, String key) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		if (key == null)
+			throw new UnknownTypeException("key is null");
+		
+		if (!isConnected()) {
+			throw new ConnectionLossException("Config service not connected to ZooKeeper");
+		}
+		
+		if (!isTypeConfigured(type))
+			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
+		
+		return getDataAsync(type, getPath(getType(type), key));
+	}
+	
+	/**
+	 * Reads node data in background and deserializes it on the list executor, so Curator event thread
+	 * isn't blocked. Completes with {@code null} if node doesn't exist.
+	 */
+	private <T> ListenableFuture<T> getDataAsync(final Class<T> type, final String path) {
+		final SettableFuture<T> result = SettableFuture.create();
+		try {
+			getCurator().getData().inBackground(new Callback<T>(result) {
+				@Override
+				protected void onResult(final CuratorEvent event) {
+					if (event.getResultCode() == Code.OK.intValue())
+						// chunks and base are read by separate requests there as well
+						execute(result, new Callable<T>() {
+							@Override
+							public T call() throws Exception {
+								try {
+									final byte[] data = readData(type, path, event.getData(), null);
+									return data != null ? deserialize(data, type) : null;
+								} catch (NoNodeException e) {
+									return null;
+								}
+							}
+						});
+					else if (event.getResultCode() == Code.NONODE.intValue())
+						result.set(null);
+					else
+						failed(event);
+				}
+			}).forPath(path);
+		} catch (Exception e) {
+			result.setException(new InvalidAccessException(e));
+		}
+		return result;
+	}
+
+	@Override
+	public <T> ListenableFuture<List<T>> listAsync(final Class<T> type) {
+		if (type == null)
+			throw new UnknownTypeException("type is null");
+		
+		if (!isTypeConfigured(type))
+			throw new UnknownTypeException("Specified "+ type.toString()+" not registred");
+		
+		final String pathForType = getPathForType(getType(type));
+		final SettableFuture<List<String>> children = SettableFuture.create();
+		try {
+			getCurator().getChildren().inBackground(new Callback<List<String>>(children) {
+				@Override
+				protected void onResult(CuratorEvent event) {
+					if (event.getResultCode() == Code.OK.intValue())
+						children.set(event.getChildren());
+					else if (event.getResultCode() == Code.NONODE.intValue())
+						children.set(new ArrayList<String>(0));
+					else
+						failed(event);
+				}
+			}).forPath(pathForType);
+		} catch (Exception e) {
+			children.setException(new InvalidAccessException(e));
+		}
+		return Futures.transform(children, new AsyncFunction<List<String>, List<T>>() {
+			@Override
+			public ListenableFuture<List<T>> apply(List<String> keys) {
+				final ParallelRead<T> read = new ParallelRead<>(type, pathForType, keys);
+				// requests wait for free window slots, so they are sent from the list executor
+				listExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						read.read();
+					}
+				});
+				return read.result;
+			}
+		}, MoreExecutors.directExecutor());
+	}
+
 	@Override
 	public boolean isConnected() {
 		return isConnected;
@@ -169,8 +1168,56 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 		return getCurator().blockUntilConnected((int) timeout, unit);
 	}
 
+	/**
+	 * Completes the given future with result of background operation, or with exception
+	 * if the result handler fails.
+	 */
+	private static abstract class Callback<V> implements BackgroundCallback {
+		private final SettableFuture<V> result;
+
+		private Callback(SettableFuture<V> result) {
+			this.result = result;
+		}
+
+		@Override
+		public void processResult(CuratorFramework client, CuratorEvent event) {
+			try {
+				onResult(event);
+			} catch (Exception e) {
+				result.setException(e instanceof RuntimeException ? e : new InvalidAccessException(e));
+			}
+		}
+
+		protected abstract void onResult(CuratorEvent event) throws Exception;
+
+		protected void failed(CuratorEvent event) {
+			result.setException(new InvalidAccessException(KeeperException.create(Code.get(event.getResultCode()), event.getPath())));
+		}
+	}
+
+	/**
+	 * Single write of batch save.
+	 */
+	private static final class Write {
+		private final String path;
+		private final byte[] data;
+		private final boolean exists;
+
+		private Write(String path, byte[] data, boolean exists) {
+			this.path = path;
+			this.data = data;
+			this.exists = exists;
+		}
+	}
+
 	public static class Builder extends ConfigServiceCore.Builder {
 
+		private int transactionSize = DEFAULT_TRANSACTION_SIZE;
+		private int listConcurrency = DEFAULT_LIST_CONCURRENCY;
+		private Executor listExecutor;
+		private boolean localReads;
+		private int chunkSize = DEFAULT_CHUNK_SIZE;
+
 		public Builder(CuratorFramework zkClient, ISerializer serializer, String environment) {
 			super(zkClient, serializer, environment);
 		}
@@ -179,6 +1226,77 @@ public class ConfigurationManager extends ConfigServiceCore implements IConfigur
 			super.registerConfigType(type, typeClass);
 			return this;
 		}
+
+		public Builder registerConfigType(String type, Class<?> typeClass, ISerializer serializer) {
+			super.registerConfigType(type, typeClass, serializer);
+			return this;
+		}
+
+		/**
+		 * Sets maximal number of operations in a single transaction of {@code saveAll()} and {@code deleteAll()}.
+		 * Whole transaction is sent as one request, so it is limited by ZooKeeper request size.
+		 * Default is {@value ConfigurationManager#DEFAULT_TRANSACTION_SIZE}.
+		 *
+		 * @param transactionSize maximal number of operations per transaction
+		 */
+		public Builder transactionSize(int transactionSize) {
+			checkArgument(transactionSize > 0, "transactionSize must be positive");
+			this.transactionSize = transactionSize;
+			return this;
+		}
+
+		/**
+		 * Sets maximal number of getData requests in flight during {@code list()} and {@code listAsync()}.
+		 * Default is {@value ConfigurationManager#DEFAULT_LIST_CONCURRENCY}.
+		 *
+		 * @param listConcurrency maximal number of outstanding requests
+		 */
+		public Builder listConcurrency(int listConcurrency) {
+			checkArgument(listConcurrency > 0, "listConcurrency must be positive");
+			this.listConcurrency = listConcurrency;
+			return this;
+		}
+
+		/**
+		 * Sets executor deserializing objects read by {@code list()} and asynchronous reads.
+		 * {@code listAsync()} sends requests from this executor as well, so it must not run tasks
+		 * on the submitting thread, e.g. direct executor. By default a pool with one daemon thread
+		 * per processor is used.
+		 *
+		 * @param listExecutor deserialization executor
+		 */
+		public Builder listExecutor(Executor listExecutor) {
+			this.listExecutor = checkNotNull(listExecutor);
+			return this;
+		}
+		
+		/**
+		 * Serves {@code get()} and {@code list()} from a local replica of configuration tree kept up to date
+		 * by TreeCache, instead of reading from ZooKeeper on every call. Reads are eventually consistent, e.g.
+		 * {@code get()} right after {@code save()} may still return the previous object. Until the replica
+		 * is initially loaded reads go to ZooKeeper. Replica is owned by the manager and is closed by
+		 * {@link ConfigurationManager#close()}. Disabled by default.
+		 *
+		 * @param localReads whether to read from local replica
+		 */
+		public Builder localReads(boolean localReads) {
+			this.localReads = localReads;
+			return this;
+		}
+		
+		/**
+		 * Sets maximal size of serialized object stored in a single node. Larger objects are split into
+		 * chunks of this size stored as children of the object node, and are assembled back on read.
+		 * Must be less than ZooKeeper {@code jute.maxbuffer}, which is 1 MB by default.
+		 * Default is {@value ConfigurationManager#DEFAULT_CHUNK_SIZE}.
+		 *
+		 * @param chunkSize maximal size of node data, in bytes
+		 */
+		public Builder chunkSize(int chunkSize) {
+			checkArgument(chunkSize > 0, "chunkSize must be positive");
+			this.chunkSize = chunkSize;
+			return this;
+		}
 		
 		public ConfigurationManager build() {
 			return new ConfigurationManager(this);
@@ -1,14 +1,45 @@
 package com.ogp.configurator;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
 import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.ogp.configurator.ConfigurationEvent.ConfigType;
 import com.ogp.configurator.ConfigurationEvent.UpdateType;
+import com.ogp.configurator.serializer.IPatchSerializer;
 import com.ogp.configurator.serializer.ISerializer;
 import com.ogp.configurator.serializer.SerializationException;
 import rx.Observable;
@@ -23,19 +54,53 @@ import rx.subjects.PublishSubject;
 public class ConfigurationMonitor extends ConfigServiceCore implements IConfigurationMonitor {
 
 	private static final Logger logger = LoggerFactory.getLogger(ConfigurationMonitor.class);
+	private static final HashFunction CONTENT_HASH = Hashing.murmur3_128();
+	public static final long DEFAULT_SNAPSHOT_INTERVAL_MS = 10000;
 	private final TreeCache configCache;
 	private final PublishSubject<ConfigurationEvent> subject;
 	private volatile boolean isInitialized; // switch to true after initialization complete, used during startup
 	private volatile boolean isConnected;
+	private final boolean lazyDeserialization;
+	private final ConcurrentMap<String, NodeState> nodeStates;
+	private final AtomicLong skippedUpdates;
+	private final TypePath[] typePaths;
+	private final LocalSnapshotFile snapshotFile;
+	private final long snapshotIntervalMs;
+	private final Set<String> restoredPaths;
+	private volatile boolean snapshotDirty;
+	private ScheduledExecutorService snapshotExecutor; // set on start if snapshot is enabled, stopped by close()
+	private volatile int restoredNodes;
+	private final int initialLoadParallelism;
+	private final List<PendingLoad> pendingLoad; // initial load, accessed from TreeCache event thread only
+	private ForkJoinPool loadPool; // set before TreeCache start, released on initialization
+	private final Map<String, PendingNode> pendingNodes; // accessed from TreeCache event thread only
+	private final ConcurrentMap<String, PatchBase> patchBases; // updated from TreeCache event thread only
 	
 	
 	protected ConfigurationMonitor(Builder builder) {
 		super(builder);
+		this.snapshotFile = builder.snapshotFile != null ? new LocalSnapshotFile(builder.snapshotFile, configEnvironmentPath) : null;
+		this.snapshotIntervalMs = builder.snapshotIntervalMs;
+		this.initialLoadParallelism = builder.initialLoadParallelism;
+		this.pendingLoad = new ArrayList<>();
+		this.pendingNodes = new HashMap<>();
+		this.patchBases = new ConcurrentHashMap<>();
+		this.restoredPaths = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		this.lazyDeserialization = builder.lazyDeserialization;
+		this.nodeStates = new ConcurrentHashMap<>(64, 0.75f, 1);
+		this.skippedUpdates = new AtomicLong();
+		this.typePaths = new TypePath[builder.configTypes.size()];
+		int i = 0;
+		for (Map.Entry<String, Class<Object>> type : builder.configTypes.entrySet()) {
+			typePaths[i++] = new TypePath(getPathForType(type.getKey()), type.getValue());
+		}
 		this.subject = PublishSubject.create();
 		this.configCache = new TreeCache(getCurator(), configEnvironmentPath);
 		this.configCache.getListenable().addListener(new TreeCacheListener() {
 			public void childEvent(CuratorFramework client, TreeCacheEvent event) throws Exception {
-				logger.trace("== Config event: type=" + event.getType() + " childData={" + childDataToString(event.getData()) + "}");
+				if (logger.isTraceEnabled()) {
+					logger.trace("== Config event: type=" + event.getType() + " childData={" + childDataToString(event.getData()) + "}");
+				}
 				processEvent(event);
 			}
 		}); 
@@ -49,6 +114,12 @@ public class ConfigurationMonitor extends ConfigServiceCore implements IConfigur
 	
 	@Override
 	public void start() throws ConnectionLossException {
+		if (snapshotFile != null) {
+			restoreSnapshot();
+		}
+		if (initialLoadParallelism > 0) {
+			loadPool = new ForkJoinPool(initialLoadParallelism);
+		}
 		try {
 			configCache.start();
 			this.isConnected = true;
@@ -56,6 +127,107 @@ public class ConfigurationMonitor extends ConfigServiceCore implements IConfigur
 			logger.error("Failed to TreeCache", e);
 			throw new ConnectionLossException(e);
 		}
+		if (snapshotFile != null) {
+			snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+					.setNameFormat("configuration-snapshot-%d")
+					.setDaemon(true)
+					.build());
+			snapshotExecutor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					writeSnapshot();
+				}
+			}, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (snapshotExecutor != null) {
+			// write in progress completes, periodic writes stop
+			snapshotExecutor.shutdown();
+		}
+		configCache.close();
+		this.isConnected = false;
+		if (loadPool != null) {
+			// closed before initialization, no more events arrive to complete the load
+			loadPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns number of configuration objects restored from local snapshot on start, they are served
+	 * until local replica is reconciled with ZooKeeper.
+	 *
+	 * @return number of restored objects, zero if snapshot is disabled, absent or unreadable.
+	 */
+	public int getRestoredNodes() {
+		return restoredNodes;
+	}
+
+	/**
+	 * Emits configuration objects stored in local snapshot as added and remembers their state, so unchanged
+	 * nodes are skipped when TreeCache loads them from ZooKeeper. Nodes not seen during the load are
+	 * removed on initialization.
+	 */
+	private void restoreSnapshot() {
+		final List<ConfigurationEvent> events = new ArrayList<>();
+		for (ChildData childData : snapshotFile.read()) {
+			final TypePath typePath = typePathOf(childData.getPath());
+			if (typePath == null) {
+				continue;
+			}
+			final String key = typePath.keyOf(childData.getPath());
+			try {
+				final Supplier<?> newObj = newValue(childData, typePath.typeClass, false);
+				isRedundantUpdate(childData);
+				restoredPaths.add(childData.getPath());
+				events.add(ConfigurationEvent.lazy(key, typePath.typeClass, key, newObj, UpdateType.ADDED));
+			} catch (SerializationException e) {
+				logger.warn("Snapshot node at path={}, class={}, have incorrect data, ignoring it.", childData.getPath(), typePath.typeClass);
+			}
+		}
+		publishInitialLoad(events);
+		restoredNodes = events.size();
+		logger.info("Restored {} configuration objects from local snapshot {}", events.size(), snapshotFile.getFile());
+	}
+
+	/**
+	 * Writes local replica to the snapshot file if it was changed since the last write.
+	 */
+	private void writeSnapshot() {
+		if (!isInitialized || !snapshotDirty) {
+			return;
+		}
+		snapshotDirty = false;
+		final List<ChildData> nodes = new ArrayList<>();
+		for (TypePath typePath : typePaths) {
+			final Map<String, ChildData> children = configCache.getCurrentChildren(typePath.path);
+			if (children == null) {
+				continue;
+			}
+			for (ChildData childData : children.values()) {
+				if (childData.getData() != null && childData.getStat() != null) {
+					// chunked and patched values are stored whole, or skipped while they are not complete
+					final ChildData resolved = resolveNode(childData);
+					if (resolved == null) {
+						continue;
+					}
+					try {
+						nodes.add(wholeValue(resolved, typePath.typeClass));
+					} catch (SerializationException e) {
+						logger.debug("Skipping node path={} in local snapshot, it can't be patched", childData.getPath(), e);
+					}
+				}
+			}
+		}
+		try {
+			snapshotFile.write(nodes);
+			logger.debug("Written {} configuration objects to local snapshot {}", nodes.size(), snapshotFile.getFile());
+		} catch (IOException | RuntimeException e) {
+			snapshotDirty = true;
+			logger.warn("Failed to write local snapshot {}", snapshotFile.getFile(), e);
+		}
 	}
 
 	@Override
@@ -73,32 +245,97 @@ public class ConfigurationMonitor extends ConfigServiceCore implements IConfigur
 		return subject;
 	}
 
-	private Class<? extends Object> childDataToClass(ChildData childData) {
-		if (childData == null) {
-			return null;
-		}
-		String path = childData.getPath();
-		String[] pathElements = path.split(CONFIG_PATH_DELIMITER);
-		if (pathElements.length > 1) {
-			String type = pathElements[pathElements.length-2];
-			return getClass(type);
+	@Override
+	public long getSkippedUpdates() {
+		return skippedUpdates.get();
+	}
+
+	/**
+	 * Resolves registered type of the configuration node at the given path by comparing it
+	 * with precomputed per-type prefixes, so it doesn't split path or allocate.
+	 *
+	 * @return type of the node or {@code null} if it isn't a configuration object node.
+	 */
+	private TypePath typePathOf(String path) {
+		final int keyStart = path.lastIndexOf(CONFIG_PATH_DELIMITER) + 1;
+		for (TypePath typePath : typePaths) {
+			if (typePath.prefix.length() == keyStart && path.startsWith(typePath.prefix)) {
+				return typePath;
+			}
 		}
-		logger.debug("childDataToClass() to small elements in path={}", path); 
 		return null;
 	}
 	
-	private String childDataToKey(ChildData childData) {
-		if (childData == null) {
+	/**
+	 * Replaces data of node keeping {@link ChunkManifest} with the value assembled from its chunks in TreeCache,
+	 * and checks that base of node keeping {@link PatchRecord} is available.
+	 *
+	 * Empty node is a new chunked value whose manifest isn't set yet.
+	 *
+	 * @return node with the value, the given node if it isn't chunked or {@code null} if chunks or base are missing.
+	 */
+	private ChildData resolveNode(ChildData childData) {
+		if (childData.getData() != null && childData.getData().length == 0) {
 			return null;
 		}
-		String path = childData.getPath();
-		String[] pathElements = path.split(CONFIG_PATH_DELIMITER);
-		if (pathElements.length > 1) {
-			String type = pathElements[pathElements.length-1];
-			return type;
+		final ChunkManifest manifest = ChunkManifest.parse(childData.getData());
+		if (manifest == null) {
+			final PatchRecord record = PatchRecord.parse(childData.getData());
+			return record == null || hasPatchBase(childData.getPath(), record) ? childData : null;
 		}
-		logger.debug("childDataToKey() to small elements in path={}", path);
-		return null;
+		try {
+			final byte[] data = manifest.assemble(ChunkManifest.treeCacheSource(configCache, childData.getPath()));
+			return data != null ? new ChildData(childData.getPath(), childData.getStat(), data) : null;
+		} catch (Exception e) {
+			logger.warn("Failed to assemble chunks of path={}", childData.getPath(), e);
+			return null;
+		}
+	}
+	
+	private boolean hasPatchBase(String path, PatchRecord record) {
+		final PatchBase base = patchBases.get(path);
+		if (base != null && base.name.equals(record.getBaseName())) {
+			return true;
+		}
+		final ChildData baseData = configCache.getCurrentData(path + CONFIG_PATH_DELIMITER + record.getBaseName());
+		return baseData != null && baseData.getData() != null;
+	}
+	
+	/**
+	 * Applies patch of the record to the base of the node. Parsed base is cached per node, so every
+	 * update parses only the patch and copies only the changed part of the document.
+	 *
+	 * @param remember whether to cache parsed base, only the TreeCache event thread updates the cache,
+	 * 		so other threads never put back a base the event thread has just evicted
+	 * @throws SerializationException if base is missing or can't be patched
+	 */
+	private Object patchedDocument(String path, PatchRecord record, Class<?> configEntityClass, boolean remember) {
+		final IPatchSerializer serializer = getPatchSerializer(configEntityClass);
+		PatchBase base = patchBases.get(path);
+		if (base == null || !base.name.equals(record.getBaseName())) {
+			final ChildData baseData = configCache.getCurrentData(path + CONFIG_PATH_DELIMITER + record.getBaseName());
+			if (baseData == null || baseData.getData() == null) {
+				throw new SerializationException("Base " + record.getBaseName() + " of path " + path + " is missing");
+			}
+			base = new PatchBase(record.getBaseName(), serializer.readDocument(baseData.getData()));
+			if (remember) {
+				patchBases.put(path, base);
+			}
+		}
+		return serializer.applyPatch(base.document, record.getPatch());
+	}
+	
+	/**
+	 * Returns node with the whole serialized object, node keeping {@link PatchRecord} is replaced with patched object.
+	 * Called from the snapshot thread, so it doesn't update cached bases.
+	 */
+	private ChildData wholeValue(ChildData childData, Class<?> configEntityClass) {
+		final PatchRecord record = PatchRecord.parse(childData.getData());
+		if (record == null) {
+			return childData;
+		}
+		final Object document = patchedDocument(childData.getPath(), record, configEntityClass, false);
+		return new ChildData(childData.getPath(), childData.getStat(), getPatchSerializer(configEntityClass).writeDocument(document));
 	}
 	
 	private static String childDataToString(ChildData childData) {
@@ -110,46 +347,110 @@ public class ConfigurationMonitor extends ConfigServiceCore implements IConfigur
 		}
 	}
 	
-	private void processEvent(TreeCacheEvent event) throws Exception {
-		Class<? extends Object> configEntityClass = childDataToClass(event.getData());
+	/**
+	 * Either deserializes node data right away or, in lazy mode, defers it till the first access.
+	 *
+	 * @param rememberBase whether to cache parsed base of patched node, false outside of the TreeCache event thread
+	 */
+	private <T> Supplier<T> newValue(ChildData childData, Class<T> configEntityClass, boolean rememberBase) {
+		final PatchRecord record = PatchRecord.parse(childData.getData());
+		if (record != null) {
+			// built from cached base document without parsing the whole object, so it isn't deferred
+			final Object document = patchedDocument(childData.getPath(), record, configEntityClass, rememberBase);
+			return Suppliers.ofInstance(getPatchSerializer(configEntityClass).toValue(document, configEntityClass));
+		}
+		if (lazyDeserialization) {
+			return new LazyConfigurationValue<T>(childData.getPath(), childData.getData(), configEntityClass, getSerializer(configEntityClass));
+		}
+		return Suppliers.ofInstance(deserialize(childData.getData(), configEntityClass));
+	}
+	
+	/**
+	 * Remembers state of the given node and checks either it differs from the last seen one.
+	 * Node is unchanged if it has the same modification zxid, e.g. TreeCache resync after reconnect,
+	 * or the same content, e.g. the same object saved again.
+	 *
+	 * @return true if node data wasn't changed since the last event.
+	 */
+	private boolean isRedundantUpdate(ChildData childData) {
+		final Stat stat = childData.getStat();
+		final byte[] data = childData.getData();
+		if (stat == null || data == null) {
+			return false;
+		}
+		final NodeState previous = nodeStates.get(childData.getPath());
+		if (previous != null && previous.mzxid == stat.getMzxid()) {
+			return true;
+		}
+		final HashCode contentHash = CONTENT_HASH.hashBytes(data);
+		nodeStates.put(childData.getPath(), new NodeState(stat.getMzxid(), contentHash));
+		return previous != null && previous.contentHash.equals(contentHash);
+	}
+	
+	void processEvent(TreeCacheEvent event) throws Exception {
+		final ChildData childData = event.getData();
+		final TypePath typePath = childData != null ? typePathOf(childData.getPath()) : null;
 		
-		logger.trace("processEvent() type={}", event.getType().toString());
+		logger.trace("processEvent() type={}", event.getType());
 
 		boolean isAdd = false;
 		switch (event.getType()) {
 			case NODE_ADDED:
 				isAdd = true;
 			case NODE_UPDATED:
-				logger.trace("processEvent() path={}", event.getData().getPath());
-				if (configEntityClass != null) {
-					logger.trace("processEvent() got update: class={}, data {}", configEntityClass.toString(), new String(event.getData().getData()));
-					try {
-						Object newObj = deserialize(event.getData().getData(), configEntityClass);
-						String key = childDataToKey(event.getData());
-						if (isAdd) {
-							subject.onNext(new ConfigurationEvent(key, configEntityClass, key, null, newObj, UpdateType.ADDED));
-							logger.trace("ConfigurationMonitor() add new object, key=({}), class={}", key, configEntityClass.toString());
-						} else {
-							subject.onNext(new ConfigurationEvent(key, configEntityClass, key, null, newObj, UpdateType.UPDATED));
-							logger.trace("ConfigurationMonitor() update object, key=({}), class={}", key, configEntityClass.toString());
-						}
-					} catch (SerializationException e) {
-						logger.warn("Configuration node at path={}, key={}, class={}, have incorrect data, ignoring update.",
-								event.getData().getPath(),
-								childDataToKey(event.getData()),
-								configEntityClass.toString());
-					}
+				logger.trace("processEvent() path={}", childData.getPath());
+				if (typePath == null) {
+					processChild(childData);
+					break;
 				}
+				if (!restoredPaths.isEmpty() && restoredPaths.remove(childData.getPath())) {
+					// object is already known from snapshot, it's an update if anything
+					isAdd = false;
+				}
+				snapshotDirty = true;
+				if (isRedundantUpdate(childData)) {
+					skippedUpdates.incrementAndGet();
+					logger.debug("processEvent() skip unchanged node path={}, mzxid={}", childData.getPath(), childData.getStat().getMzxid());
+					break;
+				}
+				final PendingNode waiting = pendingNodes.get(childData.getPath());
+				// object added as a placeholder is published as added once it's complete
+				final UpdateType updateType = isAdd || (waiting != null && waiting.updateType == UpdateType.ADDED)
+						? UpdateType.ADDED : UpdateType.UPDATED;
+				if (!PatchRecord.isPatchRecord(childData.getData())) {
+					// written as a whole, base is not used anymore
+					patchBases.remove(childData.getPath());
+				}
+				final ChildData resolved = resolveNode(childData);
+				if (resolved == null) {
+					// published when the last chunk or the base arrives
+					pendingNodes.put(childData.getPath(), new PendingNode(childData, typePath, updateType));
+					logger.debug("processEvent() waiting for children of path={}", childData.getPath());
+					break;
+				}
+				pendingNodes.remove(childData.getPath());
+				publishUpdate(resolved, typePath, updateType);
 				break;
 			case NODE_REMOVED:
-				logger.trace("processEvent() path={}", event.getData().getPath());
-				if (configEntityClass != null) {
-					String key = childDataToKey(event.getData());
-					subject.onNext(new ConfigurationEvent(key, configEntityClass, key, null, null, UpdateType.REMOVED));
-					logger.trace("ConfigurationMonitor() remove object, key=({}), class={}", key, configEntityClass.toString());
+				logger.trace("processEvent() path={}", childData.getPath());
+				if (typePath != null) {
+					snapshotDirty = true;
+					nodeStates.remove(childData.getPath());
+					pendingNodes.remove(childData.getPath());
+					patchBases.remove(childData.getPath());
+					final String key = typePath.keyOf(childData.getPath());
+					if (!isInitialized) {
+						pendingLoad.add(new PendingLoad(childData.getPath(), typePath.typeClass, key, UpdateType.REMOVED, null));
+						break;
+					}
+					subject.onNext(new ConfigurationEvent(key, typePath.typeClass, key, null, null, UpdateType.REMOVED));
+					logger.trace("ConfigurationMonitor() remove object, key=({}), class={}", key, typePath.typeClass);
 				}
 				break;
 			case INITIALIZED:
+				final List<ConfigurationEvent> loaded = completeInitialLoad();
+				removeStaleRestored(loaded);
+				publishInitialLoad(loaded);
 				logger.info("Initialization complete");
 				isInitialized = true;
 				subject.onNext(new ConfigurationEvent(ConfigType.INITIALIZED));
@@ -167,9 +468,204 @@ public class ConfigurationMonitor extends ConfigServiceCore implements IConfigur
 				break;
 		}		
 	}
+
+	/**
+	 * Publishes node waiting for the given chunk or base once all of them are in TreeCache.
+	 */
+	private void processChild(ChildData child) {
+		if (pendingNodes.isEmpty()) {
+			return;
+		}
+		final String path = child.getPath();
+		final PendingNode pending = pendingNodes.get(path.substring(0, Math.max(path.lastIndexOf(CONFIG_PATH_DELIMITER), 0)));
+		if (pending == null) {
+			return;
+		}
+		final ChildData resolved = resolveNode(pending.node);
+		if (resolved != null) {
+			pendingNodes.remove(pending.node.getPath());
+			publishUpdate(resolved, pending.typePath, pending.updateType);
+		}
+	}
+
+	private void publishUpdate(ChildData childData, TypePath typePath, UpdateType updateType) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("processEvent() got update: class={}, data {}", typePath.typeClass, new String(childData.getData()));
+		}
+		final String key = typePath.keyOf(childData.getPath());
+		if (loadPool != null) {
+			pendingLoad.add(new PendingLoad(childData.getPath(), typePath.typeClass, key, updateType, deserializeAsync(childData, typePath.typeClass)));
+			return;
+		}
+		try {
+			Supplier<?> newObj = newValue(childData, typePath.typeClass, true);
+			if (!isInitialized) {
+				// initial load is published at once on initialization
+				pendingLoad.add(new PendingLoad(childData.getPath(), typePath.typeClass, key, updateType, Futures.<Supplier<?>>immediateFuture(newObj)));
+				return;
+			}
+			subject.onNext(ConfigurationEvent.lazy(key, typePath.typeClass, key, newObj, updateType));
+			logger.trace("ConfigurationMonitor() {} object, key=({}), class={}", updateType, key, typePath.typeClass);
+		} catch (SerializationException e) {
+			logger.warn("Configuration node at path={}, key={}, class={}, have incorrect data, ignoring update.",
+					childData.getPath(),
+					key,
+					typePath.typeClass);
+		}
+	}
+	
+	private void removeStaleRestored(List<ConfigurationEvent> events) {
+		for (String path : restoredPaths) {
+			final TypePath typePath = typePathOf(path);
+			final String key = typePath.keyOf(path);
+			nodeStates.remove(path);
+			events.add(new ConfigurationEvent(key, typePath.typeClass, key, null, null, UpdateType.REMOVED));
+			logger.debug("ConfigurationMonitor() remove object restored from snapshot, key=({}), class={}", key, typePath.typeClass);
+		}
+		restoredPaths.clear();
+		snapshotDirty = true;
+	}
+	
+	/**
+	 * Turns nodes collected during the initial load into events, in the order TreeCache reported them,
+	 * waiting for objects deserialized in parallel. Initial load ends here, later updates are
+	 * deserialized on the TreeCache event thread and published one by one.
+	 *
+	 * @return events of the initial load.
+	 */
+	private List<ConfigurationEvent> completeInitialLoad() throws InterruptedException {
+		final List<ConfigurationEvent> events = new ArrayList<>(pendingLoad.size());
+		for (PendingLoad pending : pendingLoad) {
+			if (pending.value == null) {
+				events.add(new ConfigurationEvent(pending.key, pending.typeClass, pending.key, null, null, UpdateType.REMOVED));
+				continue;
+			}
+			try {
+				events.add(ConfigurationEvent.lazy(pending.key, pending.typeClass, pending.key, pending.value.get(), pending.updateType));
+			} catch (ExecutionException e) {
+				logger.warn("Configuration node at path={}, key={}, class={}, have incorrect data, ignoring update.",
+						pending.path,
+						pending.key,
+						pending.typeClass,
+						e.getCause());
+			}
+		}
+		pendingLoad.clear();
+		if (loadPool != null) {
+			logger.debug("Initial load of {} nodes deserialized with parallelism {}", events.size(), loadPool.getParallelism());
+			loadPool.shutdown();
+			loadPool = null;
+		}
+		return events;
+	}
+	
+	private Future<Supplier<?>> deserializeAsync(final ChildData childData, final Class<?> typeClass) {
+		return loadPool.submit(new Callable<Supplier<?>>() {
+			@Override
+			public Supplier<?> call() {
+				return newValue(childData, typeClass, false);
+			}
+		});
+	}
+	
+	/**
+	 * Publishes events of the initial load, i.e. objects restored from local snapshot or loaded from
+	 * ZooKeeper before initialization, right before the initialization event. Subclasses can apply them at once.
+	 *
+	 * @param events events of the initial load in the order of nodes
+	 */
+	protected void publishInitialLoad(List<ConfigurationEvent> events) {
+		for (ConfigurationEvent event : events) {
+			subject.onNext(event);
+		}
+	}
+	
+	/**
+	 * Path prefix of configuration object nodes of a single registered type.
+	 */
+	private static final class TypePath {
+		private final Class<?> typeClass;
+		private final String path;
+		private final String prefix;
+
+		private TypePath(String typePath, Class<?> typeClass) {
+			this.typeClass = typeClass;
+			this.path = typePath;
+			this.prefix = typePath + CONFIG_PATH_DELIMITER;
+		}
+
+		private String keyOf(String path) {
+			return path.substring(prefix.length());
+		}
+	}
+	
+	/**
+	 * Node reported by TreeCache during initial load, with its object deserialized or being deserialized in parallel.
+	 */
+	private static final class PendingLoad {
+		private final String path;
+		private final Class<?> typeClass;
+		private final String key;
+		private final UpdateType updateType;
+		private final Future<Supplier<?>> value; // null for removed node
+
+		private PendingLoad(String path, Class<?> typeClass, String key, UpdateType updateType, Future<Supplier<?>> value) {
+			this.path = path;
+			this.typeClass = typeClass;
+			this.key = key;
+			this.updateType = updateType;
+			this.value = value;
+		}
+	}
+	
+	/**
+	 * Node keeping {@link ChunkManifest} or {@link PatchRecord} whose chunks or base haven't arrived to TreeCache yet.
+	 */
+	private static final class PendingNode {
+		private final ChildData node;
+		private final TypePath typePath;
+		private final UpdateType updateType;
+
+		private PendingNode(ChildData node, TypePath typePath, UpdateType updateType) {
+			this.node = node;
+			this.typePath = typePath;
+			this.updateType = updateType;
+		}
+	}
+	
+	/**
+	 * Parsed base of a node updated by patches.
+	 */
+	private static final class PatchBase {
+		private final String name;
+		private final Object document;
+
+		private PatchBase(String name, Object document) {
+			this.name = name;
+			this.document = document;
+		}
+	}
+	
+	/**
+	 * Last seen modification of a configuration node.
+	 */
+	private static final class NodeState {
+		private final long mzxid;
+		private final HashCode contentHash;
+
+		private NodeState(long mzxid, HashCode contentHash) {
+			this.mzxid = mzxid;
+			this.contentHash = contentHash;
+		}
+	}
 	
 	public static class Builder extends ConfigServiceCore.Builder {
 
+		private boolean lazyDeserialization;
+		private File snapshotFile;
+		private long snapshotIntervalMs = DEFAULT_SNAPSHOT_INTERVAL_MS;
+		private int initialLoadParallelism;
+
 		public Builder(CuratorFramework zkClient, ISerializer serializer, String environment) {
 			super(zkClient, serializer, environment);
 		}
@@ -178,6 +674,67 @@ public class ConfigurationMonitor extends ConfigServiceCore implements IConfigur
 			super.registerConfigType(type, typeClass);
 			return this;
 		}
+
+		public Builder registerConfigType(String type, Class<?> typeClass, ISerializer serializer) {
+			super.registerConfigType(type, typeClass, serializer);
+			return this;
+		}
+
+		/**
+		 * Enables deserialization of configuration objects on the first access instead of on every
+		 * update received from ZooKeeper. Raw data is kept until the object is read, then decoded once.
+		 * Nodes with incorrect data can't be skipped in advance in this mode, they are logged on
+		 * the first access and read as {@code null}. Disabled by default.
+		 *
+		 * @param lazy true to deserialize objects on the first access
+		 */
+		public Builder lazyDeserialization(boolean lazy) {
+			this.lazyDeserialization = lazy;
+			return this;
+		}
+		
+		/**
+		 * Keeps local snapshot of configuration data in the given file for warm start. On start objects
+		 * are restored from the snapshot right away and local replica is reconciled with ZooKeeper in
+		 * background, only changed objects are deserialized again. Snapshot is rewritten when replica
+		 * changes, at most once per {@value ConfigurationMonitor#DEFAULT_SNAPSHOT_INTERVAL_MS} ms.
+		 *
+		 * @param file snapshot file, created if doesn't exist
+		 */
+		public Builder localSnapshot(File file) {
+			return localSnapshot(file, DEFAULT_SNAPSHOT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * Keeps local snapshot of configuration data in the given file for warm start.
+		 *
+		 * @param file snapshot file, created if doesn't exist
+		 * @param interval minimal interval between snapshot writes
+		 * @param unit the time unit of the {@code interval} argument
+		 * @see #localSnapshot(File)
+		 */
+		public Builder localSnapshot(File file, long interval, TimeUnit unit) {
+			checkNotNull(file);
+			checkArgument(interval > 0, "interval must be positive");
+			checkNotNull(unit);
+			this.snapshotFile = file;
+			this.snapshotIntervalMs = unit.toMillis(interval);
+			return this;
+		}
+		
+		/**
+		 * Deserializes nodes of the initial load in parallel on a fork-join pool of the given parallelism,
+		 * instead of one by one on the TreeCache event thread. Loaded objects are published at once, right
+		 * before the initialization event, in the order TreeCache reported them. Updates after initialization
+		 * are processed sequentially. Disabled by default.
+		 *
+		 * @param parallelism number of deserialization threads
+		 */
+		public Builder parallelInitialLoad(int parallelism) {
+			checkArgument(parallelism > 0, "parallelism must be positive");
+			this.initialLoadParallelism = parallelism;
+			return this;
+		}
 		
 		public ConfigurationMonitor build() {
 			return new ConfigurationMonitor(this);
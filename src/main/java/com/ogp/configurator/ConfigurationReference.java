@@ -0,0 +1,63 @@
+package com.ogp.configurator;
+
+/**
+ * Live reference to configuration object of the given type stored under the given key.
+ * Reference is updated in place when configuration object is added, updated or removed,
+ * so reading it is a single volatile read. If there is no object under the key then
+ * default value is returned.
+ *
+ * @param <T> configuration object class
+ * @see IConfiguration#bind(Class, String, Object)
+ */
+public final class ConfigurationReference<T> {
+
+	private final Class<T> typeClass;
+	private final ConfigurationStore.Binding<T> binding;
+	private final T defaultValue;
+
+	ConfigurationReference(Class<T> typeClass, ConfigurationStore.Binding<T> binding, T defaultValue) {
+		this.typeClass = typeClass;
+		this.binding = binding;
+		this.defaultValue = defaultValue;
+	}
+
+	public Class<T> getTypeClass() {
+		return typeClass;
+	}
+
+	public String getKey() {
+		return binding.getKey();
+	}
+
+	/**
+	 * Returns latest known configuration object or default value if such object doesn't exists.
+	 *
+	 * @return configuration object or default value.
+	 */
+	public T get() {
+		final T value = binding.get();
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * Returns either configuration object exists under the referenced key.
+	 *
+	 * @return true if configuration object exists; false if default value is used.
+	 */
+	public boolean isPresent() {
+		return binding.get() != null;
+	}
+
+	public T getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationReference{" +
+				"typeClass=" + typeClass +
+				", key=" + binding.getKey() +
+				", value=" + get() +
+				'}';
+	}
+}
@@ -0,0 +1,64 @@
+package com.ogp.configurator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import rx.Observable;
+import rx.subjects.PublishSubject;
+
+/**
+* Routes update events of a single registered type to subscribers of that type
+* and to subscribers of particular keys. Subjects are looked up by key, so each event
+* costs a single hash lookup regardless of number of subscribers to other types or keys,
+* and typed change is created only if someone listens.
+*
+* @param <T> configuration object class
+*/
+final class ConfigurationRouter<T> {
+
+	private final Class<T> typeClass;
+	private final PublishSubject<ConfigurationChange<T>> typeSubject;
+	private final ConcurrentMap<String, PublishSubject<ConfigurationChange<T>>> keySubjects;
+
+	ConfigurationRouter(Class<T> typeClass) {
+		this.typeClass = typeClass;
+		this.typeSubject = PublishSubject.create();
+		this.keySubjects = new ConcurrentHashMap<>(4, 0.9f, 1);
+	}
+
+	Observable<ConfigurationChange<T>> listen() {
+		return typeSubject;
+	}
+
+	/**
+	 * Returns stream of changes of the given key. There is at most one subject per key,
+	 * it is shared by all subscribers to that key.
+	 */
+	Observable<ConfigurationChange<T>> listen(String key) {
+		PublishSubject<ConfigurationChange<T>> keySubject = keySubjects.get(key);
+		if (keySubject == null) {
+			final PublishSubject<ConfigurationChange<T>> created = PublishSubject.create();
+			keySubject = keySubjects.putIfAbsent(key, created);
+			if (keySubject == null) {
+				keySubject = created;
+			}
+		}
+		return keySubject;
+	}
+
+	void route(ConfigurationEvent event) {
+		final boolean typeObserved = typeSubject.hasObservers();
+		final PublishSubject<ConfigurationChange<T>> keySubject = keySubjects.isEmpty() ? null : keySubjects.get(event.getKey());
+		final boolean keyObserved = keySubject != null && keySubject.hasObservers();
+		if (!typeObserved && !keyObserved) {
+			return;
+		}
+		final ConfigurationChange<T> change = new ConfigurationChange<>(typeClass, event);
+		if (typeObserved) {
+			typeSubject.onNext(change);
+		}
+		if (keyObserved) {
+			keySubject.onNext(change);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.ogp.configurator;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Immutable view of all locally cached configuration objects of a single type at some point of time.
+ * Obtaining a snapshot doesn't copy anything, it is safe to keep and iterate it while updates arrive,
+ * they are published as new snapshots with increased version. With lazy deserialization enabled
+ * objects are deserialized when they are read from the snapshot for the first time.
+ *
+ * @param <T> configuration object class
+ */
+public final class ConfigurationSnapshot<T> {
+
+	private final Class<T> typeClass;
+	private final long version;
+	private final ImmutableMap<String, Supplier<T>> entities;
+	private final Collection<T> values;
+	private final Map<String, T> map;
+
+	ConfigurationSnapshot(Class<T> typeClass, long version, ImmutableMap<String, Supplier<T>> entities) {
+		this.typeClass = typeClass;
+		this.version = version;
+		this.entities = entities;
+		this.values = Collections2.transform(entities.values(), Suppliers.<T>supplierFunction());
+		this.map = Maps.transformValues(entities, Suppliers.<T>supplierFunction());
+	}
+
+	static <T> ConfigurationSnapshot<T> empty(Class<T> typeClass) {
+		return new ConfigurationSnapshot<>(typeClass, 0, ImmutableMap.<String, Supplier<T>>of());
+	}
+
+	public Class<T> getTypeClass() {
+		return typeClass;
+	}
+
+	/**
+	 * Returns version of this snapshot. Version grows by one with each update of the given type,
+	 * so equal versions mean equal content.
+	 *
+	 * @return snapshot version.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns configuration object stored under the given key or {@code null} if such object doesn't exists.
+	 *
+	 * @param key configuration object key
+	 * @return configuration object or {@code null}
+	 */
+	public T get(String key) {
+		final Supplier<T> value = entities.get(key);
+		return value != null ? value.get() : null;
+	}
+
+	Supplier<T> getEntry(String key) {
+		return entities.get(key);
+	}
+
+	ImmutableMap<String, Supplier<T>> entries() {
+		return entities;
+	}
+
+	public boolean contains(String key) {
+		return entities.containsKey(key);
+	}
+
+	/**
+	 * Returns unmodifiable collection of all configuration objects in this snapshot.
+	 *
+	 * @return configuration objects.
+	 */
+	public Collection<T> values() {
+		return values;
+	}
+
+	/**
+	 * Returns unmodifiable set of all configuration keys in this snapshot.
+	 *
+	 * @return configuration keys.
+	 */
+	public Set<String> keys() {
+		return entities.keySet();
+	}
+
+	/**
+	 * Returns unmodifiable map of all configuration objects in this snapshot by their keys.
+	 *
+	 * @return configuration objects by key.
+	 */
+	public Map<String, T> asMap() {
+		return map;
+	}
+
+	public int size() {
+		return entities.size();
+	}
+
+	public boolean isEmpty() {
+		return entities.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationSnapshot{" +
+				"typeClass=" + typeClass +
+				", version=" + version +
+				", size=" + entities.size() +
+				'}';
+	}
+}
@@ -0,0 +1,238 @@
+package com.ogp.configurator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+
+/**
+* Local replica of configuration objects of a single registered type.
+* Readers always access immutable snapshot published through volatile reference,
+* so get() and values() never block. Updates are expected from the single TreeCache
+* event thread, each of them copies the current snapshot and publishes new one.
+* Objects are stored as suppliers, so they can be deserialized on the first read;
+* such read allocates and decodes the object once, later reads of it don't allocate.
+* Indexes need object fields, so indexed types are deserialized on update.
+*
+* @param <T> configuration object class
+*/
+final class ConfigurationStore<T> {
+
+	private final Class<T> typeClass;
+	private final ImmutableMap<String, ConfigurationIndex<T>> indexes;
+	private final ConcurrentMap<String, Binding<T>> bindings;
+	private volatile ConfigurationSnapshot<T> snapshot;
+
+	ConfigurationStore(Class<T> typeClass) {
+		this(typeClass, ImmutableMap.<String, ConfigurationIndex<T>>of());
+	}
+
+	ConfigurationStore(Class<T> typeClass, ImmutableMap<String, ConfigurationIndex<T>> indexes) {
+		this.typeClass = typeClass;
+		this.indexes = indexes;
+		this.bindings = new ConcurrentHashMap<>(4, 0.9f, 1);
+		this.snapshot = ConfigurationSnapshot.empty(typeClass);
+	}
+
+	Class<T> getTypeClass() {
+		return typeClass;
+	}
+
+	T get(String key) {
+		return snapshot.get(key);
+	}
+
+	Collection<T> values() {
+		return snapshot.values();
+	}
+
+	int size() {
+		return snapshot.size();
+	}
+
+	ConfigurationSnapshot<T> snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Returns secondary index registered under the given name or {@code null}.
+	 */
+	ConfigurationIndex<T> getIndex(String name) {
+		return indexes.get(name);
+	}
+
+	/**
+	 * Returns binding which follows value stored under the given key. There is at most
+	 * one binding per key, it is shared by all references to that key.
+	 */
+	Binding<T> bind(String key) {
+		Binding<T> binding = bindings.get(key);
+		if (binding == null) {
+			final Binding<T> created = new Binding<>(key);
+			binding = bindings.putIfAbsent(key, created);
+			if (binding == null) {
+				binding = created;
+				binding.refresh(this);
+			}
+		}
+		return binding;
+	}
+
+	/**
+	 * Publishes new snapshot with the given value stored under the given key.
+	 *
+	 * @return previous value stored under the key or {@code null}.
+	 */
+	T put(String key, T value) {
+		return valueOf(putEntry(key, Suppliers.ofInstance(value)));
+	}
+
+	/**
+	 * Publishes new snapshot without the given key.
+	 *
+	 * @return removed value or {@code null} if there was no value under the key.
+	 */
+	T remove(String key) {
+		return valueOf(removeEntry(key));
+	}
+
+	/**
+	 * Publishes new snapshot with the given value supplier stored under the given key.
+	 * Order of existent keys is preserved.
+	 *
+	 * @return supplier of previous value stored under the key or {@code null}.
+	 */
+	Supplier<T> putEntry(String key, Supplier<T> value) {
+		final ConfigurationSnapshot<T> current = snapshot;
+		final Supplier<T> old = current.getEntry(key);
+		final ImmutableMap.Builder<String, Supplier<T>> updated = ImmutableMap.builder();
+		if (old == null) {
+			updated.putAll(current.entries());
+			updated.put(key, value);
+		} else {
+			for (Map.Entry<String, Supplier<T>> entry : current.entries().entrySet()) {
+				if (entry.getKey().equals(key)) {
+					updated.put(key, value);
+				} else {
+					updated.put(entry);
+				}
+			}
+		}
+		publish(current, updated.build());
+		updateIndexes(key, old, value);
+		refreshBinding(key);
+		return old;
+	}
+
+	/**
+	 * Publishes new snapshot without the given key.
+	 *
+	 * @return supplier of removed value or {@code null} if there was no value under the key.
+	 */
+	Supplier<T> removeEntry(String key) {
+		final ConfigurationSnapshot<T> current = snapshot;
+		final Supplier<T> old = current.getEntry(key);
+		if (old == null) {
+			return null;
+		}
+		final ImmutableMap.Builder<String, Supplier<T>> updated = ImmutableMap.builder();
+		for (Map.Entry<String, Supplier<T>> entry : current.entries().entrySet()) {
+			if (!entry.getKey().equals(key)) {
+				updated.put(entry);
+			}
+		}
+		publish(current, updated.build());
+		updateIndexes(key, old, null);
+		refreshBinding(key);
+		return old;
+	}
+
+	/**
+	 * Applies all given changes and publishes single new snapshot, so readers see either none or all
+	 * of them, e.g. initial load of the replica. {@code null} value removes the key. Order of existent
+	 * keys is preserved, new keys are appended in the given order.
+	 *
+	 * @param keys keys of changed values
+	 * @param values new value suppliers, {@code null} for removed keys
+	 * @return suppliers of previous values, or {@code null} for keys which had no value, in the order of keys.
+	 */
+	List<Supplier<T>> applyEntries(List<String> keys, List<Supplier<T>> values) {
+		checkArgument(keys.size() == values.size(), "keys and values must have the same size");
+		final ConfigurationSnapshot<T> current = snapshot;
+		final Map<String, Supplier<T>> updated = new LinkedHashMap<>(current.entries());
+		final List<Supplier<T>> oldValues = new ArrayList<>(keys.size());
+		for (int i = 0; i < keys.size(); i++) {
+			final Supplier<T> value = values.get(i);
+			oldValues.add(value != null ? updated.put(keys.get(i), value) : updated.remove(keys.get(i)));
+		}
+		publish(current, ImmutableMap.copyOf(updated));
+		for (int i = 0; i < keys.size(); i++) {
+			updateIndexes(keys.get(i), oldValues.get(i), values.get(i));
+			refreshBinding(keys.get(i));
+		}
+		return oldValues;
+	}
+
+	private void publish(ConfigurationSnapshot<T> current, ImmutableMap<String, Supplier<T>> entities) {
+		snapshot = new ConfigurationSnapshot<>(typeClass, current.getVersion() + 1, entities);
+	}
+
+	private void updateIndexes(String key, Supplier<T> oldValue, Supplier<T> newValue) {
+		if (indexes.isEmpty()) {
+			return;
+		}
+		final T oldObject = valueOf(oldValue);
+		final T newObject = valueOf(newValue);
+		for (ConfigurationIndex<T> index : indexes.values()) {
+			index.update(key, oldObject, newObject);
+		}
+	}
+
+	private void refreshBinding(String key) {
+		if (!bindings.isEmpty()) {
+			final Binding<T> binding = bindings.get(key);
+			if (binding != null) {
+				binding.refresh(this);
+			}
+		}
+	}
+
+	private static <T> T valueOf(Supplier<T> value) {
+		return value != null ? value.get() : null;
+	}
+
+	/**
+	 * Holder of the latest value of a single key. Value is written under lock and always
+	 * re-read from the latest published snapshot, so concurrent bind and update can't leave
+	 * stale value behind, while readers do a single volatile read.
+	 */
+	static final class Binding<T> {
+		private final String key;
+		private volatile Supplier<T> value;
+
+		private Binding(String key) {
+			this.key = key;
+		}
+
+		String getKey() {
+			return key;
+		}
+
+		T get() {
+			return valueOf(value);
+		}
+
+		private synchronized void refresh(ConfigurationStore<T> store) {
+			value = store.snapshot().getEntry(key);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.ogp.configurator;
 
 import rx.Observable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -85,6 +86,68 @@ public interface IConfiguration {
 	 */
 	<T> List<T> list(Class<T> type);
 
+	/**
+	 * Returns immutable snapshot of all configuration objects for the given type. In contrast to {@code list()}
+	 * it doesn't copy anything, so it is cheap to call per request even for types with many objects. Returned
+	 * snapshot never changes, it is safe to iterate it while updates arrive, newer data is available
+	 * through next call of this method.
+	 *
+	 * @param type configuration object class
+	 * @return Current snapshot of configuration objects of the given type.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> ConfigurationSnapshot<T> snapshot(Class<T> type);
+
+	/**
+	 * Returns typed handle bound to locally cached configuration objects of the given type. Handle resolves
+	 * type once, so following lookups through it cost a single map lookup. Handle is valid for the whole
+	 * lifetime of the service and always returns latest known values.
+	 *
+	 * @param type configuration object class
+	 * @return Handle for the configuration objects of the given type.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> ConfigurationHandle<T> handle(Class<T> type);
+
+	/**
+	 * Returns all configuration objects of the given type indexed under the given key by the secondary
+	 * index registered with the given name, or empty collection if there are no such objects. Indexes are
+	 * maintained on each configuration update, so lookup doesn't depend on number of objects of the type.
+	 *
+	 * @param type configuration object class
+	 * @param index name of the index registered for the given type
+	 * @param indexKey index key
+	 * @return Unmodifiable collection of configuration objects under the given index key.
+	 * @throws UnknownTypeException if given configuration type or index wasn't registered to the service.
+	 */
+	<T> Collection<T> find(Class<T> type, String index, Object indexKey);
+
+	/**
+	 * Returns live reference to configuration object of the given type stored under the given key. Reference
+	 * is updated in place on each configuration update, so reading it is a single volatile read. It returns
+	 * {@code null} while such object doesn't exists.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @return Live reference to configuration object.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 * @see #bind(Class, String, Object)
+	 */
+	<T> ConfigurationReference<T> bind(Class<T> type, String key);
+
+	/**
+	 * Returns live reference to configuration object of the given type stored under the given key. Reference
+	 * is updated in place on each configuration update, so reading it is a single volatile read. It returns
+	 * given default value while such object doesn't exists.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @param defaultValue value returned while configuration object doesn't exists, can be {@code null}
+	 * @return Live reference to configuration object.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> ConfigurationReference<T> bind(Class<T> type, String key, T defaultValue);
+
 	/**
 	 * Listens for all configuration events emitted by persistent storage. It provides reactive approach for listening
 	 * of configuration changes in contrast of polling getter methods.
@@ -93,4 +156,36 @@ public interface IConfiguration {
 	 */
 	Observable<ConfigurationEvent> listen();
 
+	/**
+	 * Listens for changes of configuration objects of the given type only. Events are routed by type, so
+	 * subscribers don't see and don't filter events of other types.
+	 *
+	 * @param type configuration object class
+	 * @return Observable which emits typed changes of configuration objects of the given type.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> Observable<ConfigurationChange<T>> listen(Class<T> type);
+
+	/**
+	 * Listens for changes of configuration object of the given type stored under the given key only.
+	 * Events are routed by type and key, so subscribers don't see and don't filter any other events.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @return Observable which emits typed changes of configuration object under the given key.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> Observable<ConfigurationChange<T>> listen(Class<T> type, String key);
+
+	/**
+	 * Listens for configuration events grouped into batches, so a burst of changes, e.g. hundreds of objects
+	 * pushed at once, can be applied in one pass. Batch is emitted when it reaches maximal size or when batch
+	 * time span elapses, whichever comes first; both are configured in the builder. Empty batches are not emitted.
+	 * Batches are delivered on the RxJava computation scheduler.
+	 *
+	 * @return Observable which emits non empty lists of configuration events in order they happened.
+	 * @see Configuration.Builder#batchEvents(long, TimeUnit, int)
+	 */
+	Observable<List<ConfigurationEvent>> listenBatches();
+
 }
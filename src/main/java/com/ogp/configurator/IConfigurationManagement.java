@@ -1,8 +1,12 @@
 package com.ogp.configurator;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.ogp.configurator.serializer.SerializationException;
 
+import java.io.Closeable;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -11,7 +15,7 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Anton Kharenko
  */
-public interface IConfigurationManagement {
+public interface IConfigurationManagement extends Closeable {
 
 	/**
 	 * Start configuration client. Most methods will not work until the client is started.
@@ -20,9 +24,18 @@ public interface IConfigurationManagement {
 	 */
 	void start();
 
+	/**
+	 * Stops configuration client: closes local replica, if reads are served from it, and stops tracking
+	 * connection state. Curator client is not closed, it's owned by the caller.
+	 */
+	@Override
+	void close();
+
 	/**
 	 * Saves given configuration object under the given key. If object with such key exists it
-	 * will be replaced otherwise inserts new object.
+	 * will be replaced otherwise inserts new object. Existent object is replaced in a single round trip,
+	 * so writes of the same key made right one after another can reach monitors as a single event with
+	 * the latest object, e.g. insert immediately followed by update is seen as one added event.
 	 *
 	 * @param key configuration object key
 	 * @param value configuration object
@@ -32,6 +45,19 @@ public interface IConfigurationManagement {
 	 */
 	<T> void save(String key, T value);
 
+	/**
+	 * Saves all given configuration objects under their keys, inserting new objects and replacing existent ones.
+	 * Objects are written by multi-operation transactions of limited size, each transaction either writes all
+	 * of its objects or none of them. If a transaction fails, objects from previous transactions stay saved.
+	 *
+	 * @param values configuration objects by their keys
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if configuration type of any object wasn't registered to the service.
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 * @throws InvalidAccessException if transaction failed, e.g. object was concurrently created or deleted.
+	 */
+	<T> void saveAll(Map<String, T> values);
+
 	/**
 	 * Deletes configuration object of the given type stored under the given key.
 	 *
@@ -42,6 +68,19 @@ public interface IConfigurationManagement {
 	 */
 	<T> void delete(Class<T> type, String key);
 
+	/**
+	 * Deletes all configuration objects of the given type stored under the given keys. Objects are deleted
+	 * by multi-operation transactions of limited size, each transaction either deletes all of its objects
+	 * or none of them. If a transaction fails, objects from previous transactions stay deleted.
+	 *
+	 * @param type configuration object class
+	 * @param keys configuration object keys
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 * @throws InvalidAccessException if transaction failed, e.g. some object doesn't exist.
+	 */
+	<T> void deleteAll(Class<T> type, Collection<String> keys);
+
 	/**
 	 * Returns configuration object of the given type stored under the given key or {@code null} if such
 	 * object doesn't exists.
@@ -54,6 +93,54 @@ public interface IConfigurationManagement {
 	 */
 	<T> T get(Class<T> type, String key);
 
+	/**
+	 * Returns configuration object of the given type stored under the given key together with its version,
+	 * or {@code null} if such object doesn't exists. The version can be passed to
+	 * {@link #saveIfVersion(String, Object, int)} for optimistic read-modify-write.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @return Configuration object with its version or {@code null} if such object doesn't exists.
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> VersionedValue<T> getWithVersion(Class<T> type, String key);
+
+	/**
+	 * Saves given configuration object under the given key only if the stored object has the expected version,
+	 * i.e. it wasn't changed since it was read by {@link #getWithVersion(Class, String)}. With
+	 * {@link VersionedValue#NO_VERSION} the object is saved only if it doesn't exist yet.
+	 * Conflict is reported by the result, so the caller decides whether to re-read and retry.
+	 *
+	 * @param key configuration object key
+	 * @param value configuration object
+	 * @param expectedVersion version of the stored object or {@link VersionedValue#NO_VERSION}
+	 * @return {@code true} if object was saved, {@code false} if stored object has other version,
+	 * was deleted or, for {@link VersionedValue#NO_VERSION}, already exists.
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	<T> boolean saveIfVersion(String key, T value, int expectedVersion);
+
+	/**
+	 * Applies JSON merge patch (RFC 7386) to configuration object of the given type stored under the given key,
+	 * only if the stored object has the expected version. Only the changes are written, monitors receive
+	 * changes accumulated since the object was last written as a whole and apply them to the object they
+	 * already have, so update size and decoding cost depend on the size of the changes. Requires serializer
+	 * of the type supporting patches, e.g. {@link com.ogp.configurator.serializer.JacksonSerializator}.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @param mergePatch JSON merge patch, e.g. {@code {"rates":{"USD":1.02,"UAH":null}}}
+	 * @param expectedVersion version of the stored object, as returned by {@link #getWithVersion(Class, String)}
+	 * @return {@code true} if object was patched, {@code false} if stored object has other version or doesn't exist.
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 * @throws SerializationException Runtime exception if patch is invalid or serializer doesn't support patches.
+	 */
+	<T> boolean patch(Class<T> type, String key, String mergePatch, int expectedVersion);
+
 	/**
 	 * Returns list of all configuration object for the given type or empty list if no such
 	 * objects exists.
@@ -65,6 +152,51 @@ public interface IConfigurationManagement {
 	 */
 	<T> List<T> list(Class<T> type);
 
+	/**
+	 * Asynchronous version of {@link #save(String, Object)}. Request is sent without waiting for the response,
+	 * so many operations can be pipelined over a single connection. Arguments are checked before sending.
+	 *
+	 * @param key configuration object key
+	 * @param value configuration object
+	 * @return future completed when object is saved, or failed with {@link InvalidAccessException}.
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	<T> ListenableFuture<Void> saveAsync(String key, T value);
+
+	/**
+	 * Asynchronous version of {@link #delete(Class, String)}.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @return future completed when object is deleted, or failed with {@link InvalidAccessException}.
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> ListenableFuture<Void> deleteAsync(Class<T> type, String key);
+
+	/**
+	 * Asynchronous version of {@link #get(Class, String)}.
+	 *
+	 * @param type configuration object class
+	 * @param key configuration object key
+	 * @return future of configuration object or {@code null} if such object doesn't exists.
+	 * @throws ConnectionLossException if not connected to the configuration storage.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> ListenableFuture<T> getAsync(Class<T> type, String key);
+
+	/**
+	 * Asynchronous version of {@link #list(Class)}. Objects are requested without waiting for previous
+	 * responses, with the same limit of requests in flight as {@link #list(Class)}.
+	 *
+	 * @param type configuration object class
+	 * @return future of list of all configuration objects of the given type.
+	 * @throws UnknownTypeException if given configuration type wasn't registered to the service.
+	 */
+	<T> ListenableFuture<List<T>> listAsync(Class<T> type);
+
 	/**
 	 * Returns the connection state to the configuration storage.
 	 *
@@ -1,5 +1,7 @@
 package com.ogp.configurator;
 
+import java.io.Closeable;
+
 import rx.Observable;
 
 /**
@@ -8,7 +10,7 @@ import rx.Observable;
 *
 * @author Andriy Panasenko
 */
-public interface IConfigurationMonitor {
+public interface IConfigurationMonitor extends Closeable {
 	
 	/**
 	 * Start configuration client. Most methods will not work until the client is started. It doesn't block
@@ -21,6 +23,14 @@ public interface IConfigurationMonitor {
 	 */
 	void start() throws ConnectionLossException;
 
+	/**
+	 * Stops configuration client: stops watching the configuration storage, stops local snapshot writes
+	 * and releases threads started by the client. Getters keep returning the latest known data, but it isn't updated anymore.
+	 * Curator client is not closed, it's owned by the caller.
+	 */
+	@Override
+	void close();
+
 	/**
 	 * Returns either the local replica of configuration data is fully initialized.
 	 *
@@ -44,4 +54,12 @@ public interface IConfigurationMonitor {
 	 */
 	Observable<ConfigurationEvent> listen();
 
+	/**
+	 * Returns number of node updates which were dropped because node data wasn't changed, e.g. updates
+	 * repeated by resync after reconnect or the same object saved again. Such updates are not emitted.
+	 *
+	 * @return number of skipped updates since start.
+	 */
+	long getSkippedUpdates();
+
 }
@@ -0,0 +1,64 @@
+package com.ogp.configurator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Supplier;
+import com.ogp.configurator.serializer.ISerializer;
+import com.ogp.configurator.serializer.SerializationException;
+
+/**
+* Configuration object kept as raw node data until first access. Data is deserialized
+* once, under lock, and the result is memoized, raw data is released afterwards.
+* Data which can't be deserialized is reported once and treated as absent object.
+*
+* @param <T> configuration object class
+*/
+final class LazyConfigurationValue<T> implements Supplier<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(LazyConfigurationValue.class);
+
+	private final String path;
+	private final Class<T> typeClass;
+	private final ISerializer serializer;
+	private byte[] data; // guarded by this, released after deserialization
+	private T value; // published by write to decoded
+	private volatile boolean decoded;
+
+	LazyConfigurationValue(String path, byte[] data, Class<T> typeClass, ISerializer serializer) {
+		this.path = path;
+		this.data = data;
+		this.typeClass = typeClass;
+		this.serializer = serializer;
+	}
+
+	@Override
+	public T get() {
+		if (!decoded) {
+			decode();
+		}
+		return value;
+	}
+
+	boolean isDecoded() {
+		return decoded;
+	}
+
+	private synchronized void decode() {
+		if (decoded) {
+			return;
+		}
+		try {
+			value = serializer.deserialize(data, typeClass);
+		} catch (SerializationException e) {
+			logger.warn("Configuration node at path={}, class={}, have incorrect data, ignoring it.", path, typeClass, e);
+		}
+		data = null;
+		decoded = true;
+	}
+
+	@Override
+	public String toString() {
+		return decoded ? String.valueOf(value) : "LazyConfigurationValue{path=" + path + '}';
+	}
+}
@@ -0,0 +1,160 @@
+package com.ogp.configurator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.zookeeper.data.Stat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+* Local file with raw data of configuration nodes, used to serve configuration right after restart
+* while local replica is reconciled with ZooKeeper. File keeps for each node its path, modification zxid,
+* version and data as it was read from ZooKeeper, followed by CRC32 of the content.
+* File is read through memory mapping and written to a temporary file which then replaces the old one,
+* so readers never see partially written snapshot.
+*/
+final class LocalSnapshotFile {
+
+	private static final Logger logger = LoggerFactory.getLogger(LocalSnapshotFile.class);
+	private static final int MAGIC = 0x4F47500A;
+	private static final int FORMAT_VERSION = 1;
+
+	private final File file;
+	private final String environmentPath;
+
+	LocalSnapshotFile(File file, String environmentPath) {
+		this.file = file;
+		this.environmentPath = environmentPath;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Reads nodes from the snapshot file. Missing, corrupted or other environment snapshot is
+	 * reported and read as empty, so the service falls back to the full load from ZooKeeper.
+	 *
+	 * @return nodes stored in the snapshot.
+	 */
+	List<ChildData> read() {
+		if (!file.isFile()) {
+			logger.info("Local snapshot {} doesn't exist", file);
+			return Collections.emptyList();
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				logger.warn("Local snapshot {} has unknown format, ignoring it", file);
+				return Collections.emptyList();
+			}
+			final int contentStart = buffer.position();
+			final String environment = readString(buffer);
+			if (!environmentPath.equals(environment)) {
+				logger.warn("Local snapshot {} belongs to {}, ignoring it", file, environment);
+				return Collections.emptyList();
+			}
+			final int count = buffer.getInt();
+			final List<ChildData> nodes = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				final String path = readString(buffer);
+				final Stat stat = new Stat();
+				stat.setMzxid(buffer.getLong());
+				stat.setVersion(buffer.getInt());
+				final byte[] data = new byte[buffer.getInt()];
+				buffer.get(data);
+				nodes.add(new ChildData(path, stat, data));
+			}
+			final int contentEnd = buffer.position();
+			final long checksum = buffer.getLong();
+			if (checksum != checksum(buffer, contentStart, contentEnd)) {
+				logger.warn("Local snapshot {} is corrupted, ignoring it", file);
+				return Collections.emptyList();
+			}
+			return nodes;
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+			logger.warn("Failed to read local snapshot {}, ignoring it", file, e);
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Replaces the snapshot file with the given nodes.
+	 *
+	 * @param nodes configuration nodes with data and stat
+	 * @throws IOException if snapshot can't be written
+	 */
+	void write(Collection<ChildData> nodes) throws IOException {
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		final File temp = File.createTempFile(file.getName(), ".tmp", parent);
+		try {
+			try (DataOutputStream header = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				header.writeInt(MAGIC);
+				header.writeInt(FORMAT_VERSION);
+				final CRC32 crc = new CRC32();
+				final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(header, crc));
+				writeString(out, environmentPath);
+				out.writeInt(nodes.size());
+				for (ChildData node : nodes) {
+					writeString(out, node.getPath());
+					out.writeLong(node.getStat().getMzxid());
+					out.writeInt(node.getStat().getVersion());
+					out.writeInt(node.getData().length);
+					out.write(node.getData());
+				}
+				out.flush();
+				header.writeLong(crc.getValue());
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	private static long checksum(MappedByteBuffer buffer, int from, int to) {
+		final ByteBuffer content = buffer.duplicate();
+		content.limit(to).position(from);
+		final byte[] chunk = new byte[8192];
+		final CRC32 crc = new CRC32();
+		while (content.hasRemaining()) {
+			final int length = Math.min(chunk.length, content.remaining());
+			content.get(chunk, 0, length);
+			crc.update(chunk, 0, length);
+		}
+		return crc.getValue();
+	}
+
+	private static String readString(MappedByteBuffer buffer) {
+		final byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
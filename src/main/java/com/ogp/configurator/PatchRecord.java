@@ -0,0 +1,87 @@
+package com.ogp.configurator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+* Content of configuration node updated by merge patches. The whole object is stored once in the base node,
+* a child of the configuration node, and the configuration node keeps all changes made since then as a single
+* serialized patch. ZooKeeper watches report only the latest node state, so the patch is cumulative, and a client
+* which missed some updates still gets the right object by applying the latest patch to the base.
+* Base node is named by generation, new base never reuses the name of an old one.
+* Record starts with header byte {@value #HEADER}, which doesn't start serialized objects.
+*/
+final class PatchRecord {
+
+	static final byte HEADER = 0x03;
+	private static final int HEADER_LENGTH = 1 + 8;
+	private static final String BASE_PREFIX = "base-";
+
+	private final long generation;
+	private final byte[] patch;
+
+	private PatchRecord(long generation, byte[] patch) {
+		this.generation = generation;
+		this.patch = patch;
+	}
+
+	/**
+	 * Creates record of a new base generation.
+	 */
+	static PatchRecord of(byte[] patch) {
+		return new PatchRecord(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, patch);
+	}
+
+	/**
+	 * Parses node data as a patch record.
+	 *
+	 * @return record or {@code null} if node data is not a patch record.
+	 */
+	static PatchRecord parse(byte[] data) {
+		if (data == null || data.length <= HEADER_LENGTH || data[0] != HEADER) {
+			return null;
+		}
+		final long generation = ByteBuffer.wrap(data, 1, HEADER_LENGTH - 1).getLong();
+		if (generation < 0) {
+			return null;
+		}
+		return new PatchRecord(generation, Arrays.copyOfRange(data, HEADER_LENGTH, data.length));
+	}
+
+	static boolean isPatchRecord(byte[] data) {
+		return parse(data) != null;
+	}
+
+	/**
+	 * Returns record with the same base and the given patch.
+	 */
+	PatchRecord withPatch(byte[] patch) {
+		return new PatchRecord(generation, patch);
+	}
+
+	byte[] toBytes() {
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + patch.length);
+		buffer.put(HEADER).putLong(generation).put(patch);
+		return buffer.array();
+	}
+
+	/**
+	 * Returns node name of the base.
+	 */
+	String getBaseName() {
+		return BASE_PREFIX + Long.toHexString(generation);
+	}
+
+	byte[] getPatch() {
+		return patch;
+	}
+
+	@Override
+	public String toString() {
+		return "PatchRecord{" +
+				"base=" + getBaseName() +
+				", patch=" + patch.length +
+				'}';
+	}
+}
@@ -0,0 +1,60 @@
+package com.ogp.configurator;
+
+import java.util.Objects;
+
+/**
+ * Configuration object together with the version of the node it was read from.
+ * The version is passed back to {@link IConfigurationManagement#saveIfVersion(String, Object, int)}
+ * to save the object only if nobody changed it since it was read.
+ *
+ * @param <T> configuration object class
+ * @see IConfigurationManagement#getWithVersion(Class, String)
+ */
+public final class VersionedValue<T> {
+
+	/**
+	 * Expected version of an object which doesn't exist yet, save with it creates the object
+	 * only if it still doesn't exist.
+	 */
+	public static final int NO_VERSION = -1;
+
+	private final T value;
+	private final int version;
+
+	VersionedValue(T value, int version) {
+		this.value = value;
+		this.version = version;
+	}
+
+	public T getValue() {
+		return value;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		VersionedValue<?> that = (VersionedValue<?>) o;
+		return version == that.version &&
+				Objects.equals(value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(value, version);
+	}
+
+	@Override
+	public String toString() {
+		return "VersionedValue{" +
+				"value=" + value +
+				", version=" + version +
+				'}';
+	}
+}
@@ -0,0 +1,197 @@
+package com.ogp.configurator.serializer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Serializer which compresses data of the given serializer with Deflate. Only data larger than
+ * the threshold is compressed, compressed data starts with header byte {@value #DEFLATE} followed
+ * by the uncompressed length, other data is stored as is. Text and binary formats never start with
+ * this byte, so compressed and uncompressed nodes of the same type can coexist, e.g. while type
+ * is migrated to compression or when objects are written by older clients. Patches are supported
+ * if the given serializer supports them, patches are small and are never compressed.
+ * Deflaters and inflaters hold native zlib memory, so a bounded number of them, one per processor,
+ * is kept for reuse; instances beyond that are released right after use.
+ */
+public class CompressingSerializator implements IPreparedSerializer, IPatchSerializer {
+
+	/** Header byte of Deflate compressed data. */
+	public static final byte DEFLATE = 0x01;
+	public static final int DEFAULT_THRESHOLD = 512;
+
+	private static final int HEADER_LENGTH = 5;
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+	private final ISerializer serializer;
+	private final int threshold;
+	private final int level;
+	private final BlockingQueue<Deflater> deflaters;
+	private final BlockingQueue<Inflater> inflaters;
+
+	/**
+	 * Creates serializer compressing data larger than {@value #DEFAULT_THRESHOLD} bytes with the fastest level.
+	 *
+	 * @param serializer serializer of objects
+	 */
+	public CompressingSerializator(ISerializer serializer) {
+		this(serializer, DEFAULT_THRESHOLD, Deflater.BEST_SPEED);
+	}
+
+	/**
+	 * @param serializer serializer of objects
+	 * @param threshold minimal size of data to compress, in bytes
+	 * @param level Deflate compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+	 */
+	public CompressingSerializator(ISerializer serializer, int threshold, final int level) {
+		checkNotNull(serializer);
+		checkArgument(threshold >= 0, "threshold must not be negative");
+		checkArgument(level >= Deflater.BEST_SPEED && level <= Deflater.BEST_COMPRESSION, "invalid compression level");
+		this.serializer = serializer;
+		this.threshold = threshold;
+		this.level = level;
+		this.deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+		this.inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+	}
+
+	@Override
+	public void prepare(Class<?> clazz) {
+		if (serializer instanceof IPreparedSerializer) {
+			((IPreparedSerializer) serializer).prepare(clazz);
+		}
+	}
+
+	@Override
+	public <T> byte[] serialize(T obj) {
+		return compress(serializer.serialize(obj));
+	}
+
+	@Override
+	public <T> T deserialize(byte[] array, Class<T> clazz) {
+		return serializer.deserialize(decompress(array), clazz);
+	}
+
+	@Override
+	public byte[] readPatch(String mergePatch) {
+		return patchSerializer().readPatch(mergePatch);
+	}
+
+	@Override
+	public byte[] combinePatches(byte[] first, byte[] second) {
+		return patchSerializer().combinePatches(first, second);
+	}
+
+	@Override
+	public Object readDocument(byte[] array) {
+		return patchSerializer().readDocument(decompress(array));
+	}
+
+	@Override
+	public Object applyPatch(Object document, byte[] patch) {
+		return patchSerializer().applyPatch(document, patch);
+	}
+
+	@Override
+	public <T> T toValue(Object document, Class<T> clazz) {
+		return patchSerializer().toValue(document, clazz);
+	}
+
+	@Override
+	public byte[] writeDocument(Object document) {
+		return compress(patchSerializer().writeDocument(document));
+	}
+
+	private IPatchSerializer patchSerializer() {
+		if (!(serializer instanceof IPatchSerializer)) {
+			throw new SerializationException(serializer + " doesn't support patches");
+		}
+		return (IPatchSerializer) serializer;
+	}
+
+	private byte[] compress(byte[] data) {
+		if (data.length < threshold) {
+			return data;
+		}
+		Deflater deflater = deflaters.poll();
+		if (deflater == null) {
+			deflater = new Deflater(level);
+		}
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			// output larger than input isn't worth storing, it's kept uncompressed
+			final byte[] compressed = new byte[data.length];
+			compressed[0] = DEFLATE;
+			ByteBuffer.wrap(compressed, 1, HEADER_LENGTH - 1).putInt(data.length);
+			int length = HEADER_LENGTH;
+			while (!deflater.finished() && length < compressed.length) {
+				length += deflater.deflate(compressed, length, compressed.length - length);
+			}
+			if (!deflater.finished()) {
+				return data;
+			}
+			return Arrays.copyOf(compressed, length);
+		} finally {
+			deflater.reset();
+			if (!deflaters.offer(deflater)) {
+				deflater.end();
+			}
+		}
+	}
+
+	private byte[] decompress(byte[] array) {
+		if (array.length == 0 || array[0] != DEFLATE) {
+			return array;
+		}
+		if (array.length < HEADER_LENGTH) {
+			throw new SerializationException("Compressed data is truncated");
+		}
+		final int length = ByteBuffer.wrap(array, 1, HEADER_LENGTH - 1).getInt();
+		if (length < 0) {
+			throw new SerializationException("Compressed data has invalid length " + length);
+		}
+		Inflater inflater = inflaters.poll();
+		if (inflater == null) {
+			inflater = new Inflater();
+		}
+		inflater.setInput(array, HEADER_LENGTH, array.length - HEADER_LENGTH);
+		final byte[] data = new byte[length];
+		try {
+			int inflated = 0;
+			while (inflated < length && !inflater.finished()) {
+				final int count = inflater.inflate(data, inflated, length - inflated);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				inflated += count;
+			}
+			if (inflated != length || !inflater.finished()) {
+				throw new SerializationException("Compressed data is corrupted");
+			}
+		} catch (DataFormatException e) {
+			throw new SerializationException(e);
+		} finally {
+			inflater.reset();
+			if (!inflaters.offer(inflater)) {
+				inflater.end();
+			}
+		}
+		return data;
+	}
+
+	@Override
+	public String toString() {
+		return "CompressingSerializator{" +
+				"serializer=" + serializer +
+				", threshold=" + threshold +
+				", level=" + level +
+				'}';
+	}
+}
@@ -0,0 +1,63 @@
+package com.ogp.configurator.serializer;
+
+/**
+ * Serializer which can apply JSON merge patches (RFC 7386) to serialized objects. Patches are kept in
+ * the serializer format, and objects are patched through their parsed document, e.g. JSON tree, so
+ * a document parsed once can be patched many times without parsing the whole object again.
+ * Documents are never modified, patched document is a new one.
+ */
+public interface IPatchSerializer extends ISerializer {
+
+	/**
+	 * Converts JSON merge patch to the serializer format.
+	 *
+	 * @param mergePatch JSON merge patch
+	 * @return serialized patch.
+	 * @throws SerializationException Runtime exception if patch isn't valid JSON.
+	 */
+	public byte[] readPatch(String mergePatch);
+
+	/**
+	 * Combines two serialized patches into one which has the same effect as applying them in order.
+	 *
+	 * @param first serialized patch applied first
+	 * @param second serialized patch applied second
+	 * @return serialized combined patch or {@code null} if the effect can't be expressed by a single merge patch,
+	 * e.g. member removed by the first patch is set to an object by the second one.
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	public byte[] combinePatches(byte[] first, byte[] second);
+
+	/**
+	 * Parses serialized object into document which patches are applied to.
+	 *
+	 * @param array serialized object
+	 * @return parsed document.
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	public Object readDocument(byte[] array);
+
+	/**
+	 * Applies serialized patch to the document.
+	 *
+	 * @param document document returned by {@link #readDocument(byte[])} or by this method
+	 * @param patch serialized patch
+	 * @return patched document, the given document is not modified.
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	public Object applyPatch(Object document, byte[] patch);
+
+	/**
+	 * Converts the document to Object of Class<T>.
+	 *
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	public <T> T toValue(Object document, Class<T> clazz);
+
+	/**
+	 * Serializes the document, result is the same as serialized object of the document.
+	 *
+	 * @throws SerializationException Runtime exception if something wrong happened in serializer.
+	 */
+	public byte[] writeDocument(Object document);
+}
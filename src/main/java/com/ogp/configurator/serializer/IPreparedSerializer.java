@@ -0,0 +1,17 @@
+package com.ogp.configurator.serializer;
+
+/**
+ * Serializer which builds per class state, e.g. resolved (de)serializers, ahead of the first call.
+ * Configuration services prepare serializer for every registered configuration type when they are built,
+ * so the first update of a type isn't slowed down by the introspection.
+ */
+public interface IPreparedSerializer extends ISerializer {
+
+	/**
+	 * Prepares serialization and deserialization of the given class.
+	 *
+	 * @param clazz configuration object class
+	 * @throws SerializationException Runtime exception if the class can't be handled by serializer.
+	 */
+	public void prepare(Class<?> clazz);
+}
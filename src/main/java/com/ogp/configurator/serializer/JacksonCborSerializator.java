@@ -0,0 +1,24 @@
+package com.ogp.configurator.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Serialization/Deserialization interface implementation for work with binary CBOR format (RFC 7049)
+ * using Jackson. Numbers and strings are written without text encoding, the format is readable by
+ * CBOR libraries on other platforms.
+ */
+public class JacksonCborSerializator extends JacksonSerializator {
+
+	public JacksonCborSerializator() {
+		this(false);
+	}
+
+	/**
+	 * @param afterburner true to enable Afterburner module
+	 * @see JacksonSerializator#JacksonSerializator(boolean)
+	 */
+	public JacksonCborSerializator(boolean afterburner) {
+		super(configure(new ObjectMapper(new CBORFactory()), afterburner));
+	}
+}
@@ -1,23 +1,93 @@
 package com.ogp.configurator.serializer;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
 /**
  * Serialization/Deserialization interface implementation for work with Json using Jackson faster xml library.
+ * ObjectReader and ObjectWriter are built once per class and reused, so the (de)serializer isn't looked up
+ * by class on every call. Merge patches are applied to JSON trees, only objects on the path of a changed
+ * member are copied, so the cost of patching depends on the size of the patch rather than of the object.
  *
  * @author Andriy Panasenko
  */
-public class JacksonSerializator implements ISerializer{
+public class JacksonSerializator implements IPreparedSerializer, IPatchSerializer {
 
-	private ObjectMapper mapper = new ObjectMapper();
+	private static final ObjectReader JSON_TREE = treeReader(new ObjectMapper());
+
+	private final ObjectMapper mapper;
+	private final ObjectReader treeReader;
+	private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+	public JacksonSerializator() {
+		this(false);
+	}
+
+	/**
+	 * Creates serializer which optionally uses Afterburner module, it replaces reflection based
+	 * property access with generated bytecode.
+	 *
+	 * @param afterburner true to enable Afterburner module
+	 */
+	public JacksonSerializator(boolean afterburner) {
+		this(configure(new ObjectMapper(), afterburner));
+	}
+
+	/**
+	 * Creates serializer using the given mapper, e.g. mapper with binary data format factory.
+	 * Mapper must not be reconfigured afterwards, readers and writers are cached.
+	 *
+	 * @param mapper configured object mapper
+	 */
+	protected JacksonSerializator(ObjectMapper mapper) {
+		this.mapper = mapper;
+		this.treeReader = treeReader(mapper);
+	}
+
+	protected static ObjectMapper configure(ObjectMapper mapper, boolean afterburner) {
+		if (afterburner) {
+			mapper.registerModule(new AfterburnerModule());
+		}
+		return mapper;
+	}
+
+	/**
+	 * Trees keep decimal numbers exactly as they are written, so patched object equals deserialized one.
+	 */
+	private static ObjectReader treeReader(ObjectMapper mapper) {
+		return mapper.reader(JsonNode.class)
+				.with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+				.with(JsonNodeFactory.withExactBigDecimals(true));
+	}
+
+	@Override
+	public void prepare(Class<?> clazz) {
+		try {
+			reader(clazz);
+			writer(clazz);
+		} catch (RuntimeException e) {
+			throw new SerializationException("Can't prepare serialization of " + clazz, e);
+		}
+	}
 
 	@Override
 	public <T> byte[] serialize(T obj) {
 		try {
-			return mapper.writeValueAsBytes(obj);
+			return writer(obj.getClass()).writeValueAsBytes(obj);
 		} catch (JsonProcessingException e) {
 			throw new SerializationException(e);
 		}
@@ -26,10 +96,132 @@ public class JacksonSerializator implements ISerializer{
 	@Override
 	public <T> T deserialize(byte[] array, Class<T> clazz) {
 		try {
-			return mapper.readValue(array, clazz);
+			return reader(clazz).readValue(array);
 		} catch (IOException e) {
 			throw new SerializationException(e);
 		}
 	}
 
+	@Override
+	public byte[] readPatch(String mergePatch) {
+		try {
+			return mapper.writeValueAsBytes(JSON_TREE.readValue(mergePatch));
+		} catch (IOException e) {
+			throw new SerializationException(e);
+		}
+	}
+
+	@Override
+	public byte[] combinePatches(byte[] first, byte[] second) {
+		final JsonNode combined = combine(readTree(first), readTree(second));
+		return combined != null ? writeDocument(combined) : null;
+	}
+
+	@Override
+	public Object readDocument(byte[] array) {
+		return readTree(array);
+	}
+
+	@Override
+	public Object applyPatch(Object document, byte[] patch) {
+		return merge((JsonNode) document, readTree(patch));
+	}
+
+	@Override
+	public <T> T toValue(Object document, Class<T> clazz) {
+		try {
+			return reader(clazz).readValue((JsonNode) document);
+		} catch (IOException e) {
+			throw new SerializationException(e);
+		}
+	}
+
+	@Override
+	public byte[] writeDocument(Object document) {
+		try {
+			return mapper.writeValueAsBytes(document);
+		} catch (JsonProcessingException e) {
+			throw new SerializationException(e);
+		}
+	}
+
+	private JsonNode readTree(byte[] array) {
+		try {
+			return treeReader.readValue(array);
+		} catch (IOException e) {
+			throw new SerializationException(e);
+		}
+	}
+
+	/**
+	 * Applies merge patch as defined by RFC 7386, copying only objects which are changed.
+	 */
+	private static JsonNode merge(JsonNode target, JsonNode patch) {
+		if (!patch.isObject()) {
+			return patch;
+		}
+		final ObjectNode result = JsonNodeFactory.instance.objectNode();
+		if (target != null && target.isObject()) {
+			result.setAll((ObjectNode) target);
+		}
+		final Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+		while (fields.hasNext()) {
+			final Map.Entry<String, JsonNode> field = fields.next();
+			if (field.getValue().isNull()) {
+				result.remove(field.getKey());
+			} else {
+				result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+			}
+		}
+		return result;
+	}
+
+	private static JsonNode combine(JsonNode first, JsonNode second) {
+		if (!second.isObject()) {
+			return second;
+		}
+		if (!first.isObject()) {
+			// object merged into replaced value can't be told apart from object merged into target
+			return null;
+		}
+		final ObjectNode result = ((ObjectNode) first).deepCopy();
+		final Iterator<Map.Entry<String, JsonNode>> fields = second.fields();
+		while (fields.hasNext()) {
+			final Map.Entry<String, JsonNode> field = fields.next();
+			final JsonNode previous = first.get(field.getKey());
+			if (previous == null || !field.getValue().isObject()) {
+				result.set(field.getKey(), field.getValue());
+			} else {
+				final JsonNode combined = combine(previous, field.getValue());
+				if (combined == null) {
+					return null;
+				}
+				result.set(field.getKey(), combined);
+			}
+		}
+		return result;
+	}
+
+	private ObjectReader reader(Class<?> clazz) {
+		ObjectReader reader = readers.get(clazz);
+		if (reader == null) {
+			reader = mapper.reader(clazz);
+			final ObjectReader existent = readers.putIfAbsent(clazz, reader);
+			if (existent != null)
+				reader = existent;
+		}
+		return reader;
+	}
+
+	private ObjectWriter writer(Class<?> clazz) {
+		ObjectWriter writer = writers.get(clazz);
+		if (writer == null) {
+			writer = mapper.writerFor(clazz);
+			final ObjectWriter existent = writers.putIfAbsent(clazz, writer);
+			if (existent != null)
+				writer = existent;
+		}
+		return writer;
+	}
+
 }
@@ -0,0 +1,27 @@
+package com.ogp.configurator.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Serialization/Deserialization interface implementation for work with binary Smile format using Jackson.
+ * Smile has the same data model as Json, repeated property names and short string values are written
+ * once and back-referenced, so collections of similar objects are much smaller and faster to parse.
+ */
+public class JacksonSmileSerializator extends JacksonSerializator {
+
+	public JacksonSmileSerializator() {
+		this(false);
+	}
+
+	/**
+	 * @param afterburner true to enable Afterburner module
+	 * @see JacksonSerializator#JacksonSerializator(boolean)
+	 */
+	public JacksonSmileSerializator(boolean afterburner) {
+		super(configure(new ObjectMapper(new SmileFactory()
+				.enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+				.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)), afterburner));
+	}
+}
@@ -0,0 +1,138 @@
+package com.ogp.configurator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rx.Observer;
+
+import com.ogp.configurator.ConfigurationDispatcher.OverflowPolicy;
+import com.ogp.configurator.ConfigurationEvent.UpdateType;
+import com.ogp.configurator.examples.ServerConfigEntity;
+
+public class ConfigurationDispatcherTest {
+
+	private CountDownLatch entered;
+	private CountDownLatch release;
+	private CountDownLatch delivered;
+	private List<ConfigurationEvent> events;
+	private ConfigurationDispatcher dispatcher;
+
+	@Before
+	public void setUp() throws Exception {
+		entered = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		delivered = new CountDownLatch(4);
+		events = new CopyOnWriteArrayList<>();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		release.countDown();
+		dispatcher.shutdown();
+	}
+
+	private ConfigurationDispatcher newDispatcher(OverflowPolicy policy) {
+		final ConfigurationDispatcher dispatcher = new ConfigurationDispatcher(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				events.add(event);
+				delivered.countDown();
+			}
+		}, 4, policy);
+		dispatcher.start();
+		return dispatcher;
+	}
+
+	private static ConfigurationEvent event(int i) {
+		final String key = String.valueOf(i);
+		return new ConfigurationEvent(key, ServerConfigEntity.class, key, null, null, UpdateType.ADDED);
+	}
+
+	@Test
+	public void testDropWhenFull() throws Exception {
+		dispatcher = newDispatcher(OverflowPolicy.DROP);
+		dispatcher.dispatch(event(0));
+		assertTrue(entered.await(1, TimeUnit.MINUTES));
+
+		for (int i = 1; i < 6; i++) {
+			dispatcher.dispatch(event(i));
+		}
+		assertEquals(4, dispatcher.getQueueDepth());
+		assertEquals(2, dispatcher.getDroppedEvents());
+
+		release.countDown();
+		assertTrue(delivered.await(1, TimeUnit.MINUTES));
+		assertEquals(event(0), events.get(0));
+		assertEquals(event(3), events.get(3));
+		assertTrue(dispatcher.getMaxLag(TimeUnit.NANOSECONDS) > 0);
+	}
+
+	@Test
+	public void testDropKeepsRemovals() throws Exception {
+		final ConfigurationDispatcher dispatcher = newDispatcher(OverflowPolicy.DROP);
+		this.dispatcher = dispatcher;
+		dispatcher.dispatch(event(0));
+		assertTrue(entered.await(1, TimeUnit.MINUTES));
+		for (int i = 1; i < 4; i++) {
+			dispatcher.dispatch(event(i));
+		}
+
+		final ConfigurationEvent removed = new ConfigurationEvent("1", ServerConfigEntity.class, "1", null, null, UpdateType.REMOVED);
+		final Thread publisher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				dispatcher.dispatch(removed);
+			}
+		});
+		publisher.start();
+		publisher.join(200);
+		// waits for free slot instead of dropping
+		assertTrue(publisher.isAlive());
+
+		release.countDown();
+		publisher.join(TimeUnit.MINUTES.toMillis(1));
+		assertFalse(publisher.isAlive());
+		for (int i = 0; i < 100 && events.size() < 5; i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(removed, events.get(4));
+		assertEquals(0, dispatcher.getDroppedEvents());
+	}
+
+	@Test
+	public void testDeliverInOrder() throws Exception {
+		dispatcher = newDispatcher(OverflowPolicy.BLOCK);
+		release.countDown();
+		for (int i = 0; i < 4; i++) {
+			dispatcher.dispatch(event(i));
+		}
+		assertTrue(delivered.await(1, TimeUnit.MINUTES));
+		for (int i = 0; i < 4; i++) {
+			assertEquals(event(i), events.get(i));
+		}
+		assertEquals(0, dispatcher.getDroppedEvents());
+	}
+}
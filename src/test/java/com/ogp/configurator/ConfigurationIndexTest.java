@@ -0,0 +1,70 @@
+package com.ogp.configurator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.ogp.configurator.examples.ServerConfigEntity;
+
+public class ConfigurationIndexTest {
+
+	private ConfigurationIndex<ServerConfigEntity> byPort;
+	private ServerConfigEntity first;
+	private ServerConfigEntity second;
+
+	@Before
+	public void setUp() throws Exception {
+		byPort = new ConfigurationIndex<>("port", new Function<ServerConfigEntity, Iterable<?>>() {
+			@Override
+			public Iterable<?> apply(ServerConfigEntity value) {
+				return Arrays.asList(value.getPort());
+			}
+		});
+		first = new ServerConfigEntity("1", "name1", "host1", 10);
+		second = new ServerConfigEntity("2", "name2", "host2", 10);
+	}
+
+	@Test
+	public void testAdd() throws Exception {
+		byPort.update(first.getId(), null, first);
+		byPort.update(second.getId(), null, second);
+
+		assertEquals(ImmutableSet.of(first, second), ImmutableSet.copyOf(byPort.find(10)));
+		assertTrue(byPort.find(20).isEmpty());
+	}
+
+	@Test
+	public void testUpdateMovesObject() throws Exception {
+		byPort.update(first.getId(), null, first);
+		byPort.update(second.getId(), null, second);
+
+		ServerConfigEntity moved = new ServerConfigEntity("1", "name1", "host1", 20);
+		byPort.update(moved.getId(), first, moved);
+
+		assertEquals(ImmutableSet.of(second), ImmutableSet.copyOf(byPort.find(10)));
+		assertEquals(ImmutableSet.of(moved), ImmutableSet.copyOf(byPort.find(20)));
+
+		ServerConfigEntity renamed = new ServerConfigEntity("1", "name3", "host1", 20);
+		byPort.update(renamed.getId(), moved, renamed);
+		assertEquals(ImmutableSet.of(renamed), ImmutableSet.copyOf(byPort.find(20)));
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		byPort.update(first.getId(), null, first);
+		byPort.update(second.getId(), null, second);
+
+		byPort.update(first.getId(), first, null);
+		assertEquals(ImmutableSet.of(second), ImmutableSet.copyOf(byPort.find(10)));
+
+		byPort.update(second.getId(), second, null);
+		assertTrue(byPort.find(10).isEmpty());
+		assertTrue(byPort.keys().isEmpty());
+	}
+}
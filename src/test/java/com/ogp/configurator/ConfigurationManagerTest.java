@@ -5,9 +5,18 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
@@ -20,9 +29,15 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.ogp.configurator.examples.FixedCurrencyRates;
 import com.ogp.configurator.examples.ServerConfigEntity;
+import com.ogp.configurator.serializer.CompressingSerializator;
+import com.ogp.configurator.serializer.ISerializer;
 import com.ogp.configurator.serializer.JacksonSerializator;
+import com.ogp.configurator.serializer.JacksonSmileSerializator;
+import com.ogp.configurator.serializer.SerializationException;
 
 /**
  * @author Andriy Panasenko <avp@avp.kiev.ua>
@@ -84,6 +99,7 @@ public class ConfigurationManagerTest {
 	@After
 	public void tearDown() throws Exception {
 		logger.info("ConfigurationManagerTest() -- tearDown() starting....");
+		configManger.close();
 		client.close();
 		client = null;
 		configManger = null;
@@ -109,6 +125,24 @@ public class ConfigurationManagerTest {
 		configManger.save(testRate.getKey(), testRate);
 	}
 	
+	/**
+	 * Test method for {@link com.ogp.configurator.ConfigurationManager#save(String, Object)} replacing existent object
+	 * @throws Exception
+	 */
+	@Test
+	public void testSaveUpdate() throws Exception {
+		testSave();
+		
+		ServerConfigEntity newConfig = new ServerConfigEntity(testConfig.getId(), "name1", "host1", 11);
+		configManger.save(newConfig.getId(), newConfig);
+		assertEquals(newConfig, configManger.get(ServerConfigEntity.class, testConfig.getId()));
+		
+		configManger.delete(ServerConfigEntity.class, testConfig.getId());
+		client.delete().forPath("/config/" + ENVIRONMENT + "/" + CONFIG_TYPE);
+		configManger.save(testConfig.getId(), testConfig);
+		assertEquals(testConfig, configManger.get(ServerConfigEntity.class, testConfig.getId()));
+	}
+	
 	/**
 	 * Test method for {@link com.ogp.configurator.ConfigurationManager#get(Class, String)}}
 	 * @throws Exception
@@ -161,6 +195,337 @@ public class ConfigurationManagerTest {
 		assertNull(r);
 	}
 	
+	/**
+	 * Test method for {@link com.ogp.configurator.ConfigurationManager#saveAll(java.util.Map)}
+	 * @throws Exception
+	 */
+	@Test
+	public void testSaveAll() throws Exception {
+		testSave();
+		ConfigurationManager batchManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.transactionSize(2)
+				.build();
+		batchManager.start();
+		
+		Map<String, ServerConfigEntity> configs = new LinkedHashMap<String, ServerConfigEntity>();
+		for (int i = 0; i < 5; i++) {
+			configs.put(String.valueOf(i + 10), new ServerConfigEntity(String.valueOf(i + 10), "name" + i, "host" + i, i));
+		}
+		batchManager.saveAll(configs);
+		
+		List<ServerConfigEntity> sl = configManger.list(ServerConfigEntity.class);
+		assertEquals(5, sl.size());
+		assertTrue(sl.containsAll(configs.values()));
+		
+		// type node removed from outside is created again
+		batchManager.deleteAll(ServerConfigEntity.class, configs.keySet());
+		client.delete().forPath("/config/" + ENVIRONMENT + "/" + CONFIG_TYPE);
+		batchManager.saveAll(configs);
+		assertEquals(5, configManger.list(ServerConfigEntity.class).size());
+	}
+	
+	/**
+	 * Test method for {@link com.ogp.configurator.ConfigurationManager#deleteAll(Class, java.util.Collection)}
+	 * @throws Exception
+	 */
+	@Test
+	public void testDeleteAll() throws Exception {
+		testSaveAll();
+		
+		configManger.deleteAll(ServerConfigEntity.class, Arrays.asList("10", "11"));
+		assertEquals(3, configManger.list(ServerConfigEntity.class).size());
+		
+		try {
+			configManger.deleteAll(ServerConfigEntity.class, Arrays.asList("12", "missing"));
+			fail("Transaction with missing key must fail");
+		} catch (InvalidAccessException e) {
+			// expected, whole transaction is rolled back
+		}
+		assertNotNull(configManger.get(ServerConfigEntity.class, "12"));
+	}
+	
+	/**
+	 * Test method for {@link com.ogp.configurator.ConfigurationManager#saveIfVersion(String, Object, int)}
+	 * @throws Exception
+	 */
+	@Test
+	public void testSaveIfVersion() throws Exception {
+		assertNull(configManger.getWithVersion(ServerConfigEntity.class, testConfig.getId()));
+		assertTrue(configManger.saveIfVersion(testConfig.getId(), testConfig, VersionedValue.NO_VERSION));
+		assertFalse(configManger.saveIfVersion(testConfig.getId(), testConfig, VersionedValue.NO_VERSION));
+		
+		VersionedValue<ServerConfigEntity> read = configManger.getWithVersion(ServerConfigEntity.class, testConfig.getId());
+		assertEquals(testConfig, read.getValue());
+		
+		ServerConfigEntity first = new ServerConfigEntity(testConfig.getId(), "first", "host1", 1);
+		ServerConfigEntity second = new ServerConfigEntity(testConfig.getId(), "second", "host2", 2);
+		assertTrue(configManger.saveIfVersion(testConfig.getId(), first, read.getVersion()));
+		// second writer read the same version, its change must be rejected
+		assertFalse(configManger.saveIfVersion(testConfig.getId(), second, read.getVersion()));
+		
+		VersionedValue<ServerConfigEntity> reread = configManger.getWithVersion(ServerConfigEntity.class, testConfig.getId());
+		assertEquals(first, reread.getValue());
+		assertTrue(reread.getVersion() > read.getVersion());
+		assertTrue(configManger.saveIfVersion(testConfig.getId(), second, reread.getVersion()));
+		assertEquals(second, configManger.get(ServerConfigEntity.class, testConfig.getId()));
+	}
+	
+	/**
+	 * Test method for configuration type registered with its own serializer.
+	 * @throws Exception
+	 */
+	@Test
+	public void testTypeSerializer() throws Exception {
+		ConfigurationManager smileManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class, new JacksonSmileSerializator())
+				.build();
+		smileManager.start();
+		smileManager.save(testRate.getKey(), testRate);
+		smileManager.save(testConfig.getId(), testConfig);
+		assertEquals(testRate, smileManager.get(FixedCurrencyRates.class, testRate.getKey()));
+		// type with default serializer is readable by manager without type serializers
+		assertEquals(testConfig, configManger.get(ServerConfigEntity.class, testConfig.getId()));
+		try {
+			configManger.get(FixedCurrencyRates.class, testRate.getKey());
+			fail("Smile data must not be readable as Json");
+		} catch (SerializationException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test method for configuration type stored compressed next to uncompressed objects.
+	 * @throws Exception
+	 */
+	@Test
+	public void testCompressedType() throws Exception {
+		FixedCurrencyRates large = new FixedCurrencyRates("LARGE");
+		for (int i = 0; i < 1000; i++) {
+			large.addRate("CUR" + i, BigDecimal.valueOf(100000 + i, 4));
+		}
+		// written before compression was enabled
+		configManger.save(testRate.getKey(), testRate);
+		
+		ConfigurationManager compressingManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class, new CompressingSerializator(new JacksonSerializator()))
+				.build();
+		compressingManager.start();
+		compressingManager.save(large.getKey(), large);
+		
+		byte[] data = client.getData().forPath("/config/" + ENVIRONMENT + "/" + RATES_TYPE + "/" + large.getKey());
+		assertEquals(CompressingSerializator.DEFLATE, data[0]);
+		assertEquals(large, compressingManager.get(FixedCurrencyRates.class, large.getKey()));
+		assertEquals(testRate, compressingManager.get(FixedCurrencyRates.class, testRate.getKey()));
+		assertEquals(2, compressingManager.list(FixedCurrencyRates.class).size());
+	}
+
+	@Test
+	public void testPatch() throws Exception {
+		configManger.save(testRate.getKey(), testRate);
+		String path = "/config/" + ENVIRONMENT + "/" + RATES_TYPE + "/" + testRate.getKey();
+		VersionedValue<FixedCurrencyRates> versioned = configManger.getWithVersion(FixedCurrencyRates.class, testRate.getKey());
+		
+		assertTrue(configManger.patch(FixedCurrencyRates.class, testRate.getKey(), "{\"rates\":{\"GBP\":0.71}}", versioned.getVersion()));
+		assertFalse(configManger.patch(FixedCurrencyRates.class, testRate.getKey(), "{\"rates\":{\"GBP\":0.72}}", versioned.getVersion()));
+		testRate.addRate("GBP", new BigDecimal("0.71"));
+		assertEquals(testRate, configManger.get(FixedCurrencyRates.class, testRate.getKey()));
+		// object is kept in the base node, the node itself keeps only changes
+		assertEquals(1, client.getChildren().forPath(path).size());
+		assertEquals(PatchRecord.HEADER, client.getData().forPath(path)[0]);
+		
+		versioned = configManger.getWithVersion(FixedCurrencyRates.class, testRate.getKey());
+		assertEquals(testRate, versioned.getValue());
+		assertTrue(configManger.patch(FixedCurrencyRates.class, testRate.getKey(), "{\"rates\":{\"USD\":null}}", versioned.getVersion()));
+		testRate.getRates().remove("USD");
+		assertEquals(testRate, configManger.get(FixedCurrencyRates.class, testRate.getKey()));
+		assertEquals(1, configManger.list(FixedCurrencyRates.class).size());
+		assertFalse(configManger.patch(FixedCurrencyRates.class, "missing", "{}", 0));
+		
+		// saving the whole object removes the base
+		configManger.save(testRate.getKey(), testRate);
+		assertEquals(0, client.getChildren().forPath(path).size());
+		assertEquals(testRate, configManger.get(FixedCurrencyRates.class, testRate.getKey()));
+	}
+
+	@Test
+	public void testPatchCompaction() throws Exception {
+		configManger.save(testConfig.getId(), testConfig);
+		String path = "/config/" + ENVIRONMENT + "/" + CONFIG_TYPE + "/" + testConfig.getId();
+		StringBuilder host = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			host.append("host").append(i);
+			int version = configManger.getWithVersion(ServerConfigEntity.class, testConfig.getId()).getVersion();
+			assertTrue(configManger.patch(ServerConfigEntity.class, testConfig.getId(), "{\"host\":\"" + host + "\"}", version));
+		}
+		// accumulated patch outgrew the object, which is written as a whole again
+		assertEquals(new ServerConfigEntity("10", "name", host.toString(), 10), configManger.get(ServerConfigEntity.class, testConfig.getId()));
+		assertTrue(client.getChildren().forPath(path).size() <= 1);
+	}
+
+	@Test(expected = SerializationException.class)
+	public void testPatchUnsupported() throws Exception {
+		ConfigurationManager manager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class, new ISerializer() {
+					@Override
+					public <T> byte[] serialize(T obj) {
+						return new byte[0];
+					}
+
+					@Override
+					public <T> T deserialize(byte[] array, Class<T> clazz) {
+						return null;
+					}
+				})
+				.build();
+		manager.start();
+		manager.patch(ServerConfigEntity.class, testConfig.getId(), "{}", 0);
+	}
+
+	@Test
+	public void testChunkedSave() throws Exception {
+		FixedCurrencyRates large = new FixedCurrencyRates("LARGE");
+		for (int i = 0; i < 200; i++) {
+			large.addRate("CUR" + i, BigDecimal.valueOf(100000 + i, 4));
+		}
+		ConfigurationManager chunkingManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.chunkSize(1024)
+				.build();
+		chunkingManager.start();
+		chunkingManager.save(large.getKey(), large);
+
+		String path = "/config/" + ENVIRONMENT + "/" + RATES_TYPE + "/" + large.getKey();
+		List<String> chunks = client.getChildren().forPath(path);
+		assertTrue(chunks.size() > 1);
+		assertEquals(ChunkManifest.HEADER, client.getData().forPath(path)[0]);
+		assertEquals(large, chunkingManager.get(FixedCurrencyRates.class, large.getKey()));
+		assertEquals(large, configManger.get(FixedCurrencyRates.class, large.getKey()));
+		assertEquals(large, chunkingManager.getAsync(FixedCurrencyRates.class, large.getKey()).get());
+		assertEquals(1, chunkingManager.list(FixedCurrencyRates.class).size());
+
+		// new generation replaces all chunks of the previous one
+		large.addRate("NEW", BigDecimal.ONE);
+		VersionedValue<FixedCurrencyRates> versioned = chunkingManager.getWithVersion(FixedCurrencyRates.class, large.getKey());
+		assertTrue(chunkingManager.saveIfVersion(large.getKey(), large, versioned.getVersion()));
+		assertFalse(chunkingManager.saveIfVersion(large.getKey(), large, versioned.getVersion()));
+		assertEquals(large, chunkingManager.get(FixedCurrencyRates.class, large.getKey()));
+		for (String chunk : client.getChildren().forPath(path)) {
+			assertFalse(chunks.contains(chunk));
+		}
+
+		// small value removes chunks
+		chunkingManager.save(testRate.getKey(), testRate);
+		chunkingManager.save(large.getKey(), testRate);
+		assertEquals(0, client.getChildren().forPath(path).size());
+		chunkingManager.save(large.getKey(), large);
+		chunkingManager.delete(FixedCurrencyRates.class, large.getKey());
+		assertNull(client.checkExists().forPath(path));
+
+		// writer died before the manifest was set, empty node reads as absent until the next save
+		client.create().forPath(path, new byte[0]);
+		client.create().forPath(path + "/orphan-chunk", new byte[] {1, 2, 3});
+		assertNull(chunkingManager.get(FixedCurrencyRates.class, large.getKey()));
+		assertEquals(1, chunkingManager.list(FixedCurrencyRates.class).size());
+		chunkingManager.save(large.getKey(), large);
+		assertEquals(large, chunkingManager.get(FixedCurrencyRates.class, large.getKey()));
+		assertFalse(client.getChildren().forPath(path).contains("orphan-chunk"));
+	}
+	
+	/**
+	 * Test method for {@link com.ogp.configurator.ConfigurationManager#list(Class)} and
+	 * {@link com.ogp.configurator.ConfigurationManager#listAsync(Class)} with small in-flight window.
+	 * @throws Exception
+	 */
+	@Test
+	public void testListParallel() throws Exception {
+		ExecutorService listExecutor = Executors.newSingleThreadExecutor();
+		ConfigurationManager listManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.listConcurrency(3)
+				.listExecutor(listExecutor)
+				.build();
+		listManager.start();
+		assertTrue(listManager.list(ServerConfigEntity.class).isEmpty());
+		
+		Map<String, ServerConfigEntity> configs = new LinkedHashMap<String, ServerConfigEntity>();
+		for (int i = 0; i < 50; i++) {
+			configs.put(String.valueOf(i), new ServerConfigEntity(String.valueOf(i), "name" + i, "host" + i, i));
+		}
+		listManager.saveAll(configs);
+		
+		List<ServerConfigEntity> sl = listManager.list(ServerConfigEntity.class);
+		assertEquals(50, sl.size());
+		assertTrue(sl.containsAll(configs.values()));
+		
+		// requests and deserialization share the single executor thread
+		sl = listManager.listAsync(ServerConfigEntity.class).get(5, TimeUnit.SECONDS);
+		assertEquals(50, sl.size());
+		assertTrue(sl.containsAll(configs.values()));
+		listExecutor.shutdown();
+	}
+	
+	/**
+	 * Test method for {@link com.ogp.configurator.ConfigurationManager#get(Class, String)} and
+	 * {@link com.ogp.configurator.ConfigurationManager#list(Class)} served from local replica.
+	 * @throws Exception
+	 */
+	@Test
+	public void testLocalReads() throws Exception {
+		configManger.save(testConfig.getId(), testConfig);
+		ConfigurationManager localManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.localReads(true)
+				.build();
+		localManager.start();
+		assertEquals(testConfig, localManager.get(ServerConfigEntity.class, testConfig.getId()));
+		
+		ServerConfigEntity other = new ServerConfigEntity("11", "other", "host", 11);
+		configManger.save(other.getId(), other);
+		for (int i = 0; i < 50 && localManager.get(ServerConfigEntity.class, other.getId()) == null; i++) {
+			Thread.sleep(100);
+		}
+		assertEquals(other, localManager.get(ServerConfigEntity.class, other.getId()));
+		List<ServerConfigEntity> sl = localManager.list(ServerConfigEntity.class);
+		assertEquals(2, sl.size());
+		assertTrue(sl.contains(testConfig));
+		assertNull(localManager.get(ServerConfigEntity.class, "missing"));
+		localManager.close();
+	}
+	
+	/**
+	 * Test method for asynchronous save, get, list and delete.
+	 * @throws Exception
+	 */
+	@Test
+	public void testAsync() throws Exception {
+		List<ListenableFuture<Void>> saves = new ArrayList<ListenableFuture<Void>>();
+		for (int i = 0; i < 5; i++) {
+			saves.add(configManger.saveAsync(String.valueOf(i), new ServerConfigEntity(String.valueOf(i), "name" + i, "host" + i, i)));
+		}
+		Futures.allAsList(saves).get(5, TimeUnit.SECONDS);
+		
+		// update of existing object
+		configManger.saveAsync("0", testConfig).get(5, TimeUnit.SECONDS);
+		assertEquals(testConfig, configManger.getAsync(ServerConfigEntity.class, "0").get(5, TimeUnit.SECONDS));
+		assertNull(configManger.getAsync(ServerConfigEntity.class, "missing").get(5, TimeUnit.SECONDS));
+		
+		List<ServerConfigEntity> sl = configManger.listAsync(ServerConfigEntity.class).get(5, TimeUnit.SECONDS);
+		assertEquals(5, sl.size());
+		assertTrue(sl.contains(testConfig));
+		
+		configManger.deleteAsync(ServerConfigEntity.class, "0").get(5, TimeUnit.SECONDS);
+		assertNull(configManger.get(ServerConfigEntity.class, "0"));
+		
+		try {
+			configManger.deleteAsync(ServerConfigEntity.class, "0").get(5, TimeUnit.SECONDS);
+			fail("Delete of missing key must fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof InvalidAccessException);
+		}
+	}
+	
 	@Test
 	public void testIsConnected() throws Exception {
 		assertTrue(configManger.isConnected());
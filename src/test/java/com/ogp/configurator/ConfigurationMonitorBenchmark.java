@@ -0,0 +1,101 @@
+package com.ogp.configurator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.data.Stat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ogp.configurator.examples.FixedCurrencyRates;
+import com.ogp.configurator.examples.ServerConfigEntity;
+import com.ogp.configurator.serializer.JacksonSerializator;
+
+/**
+ * Measures events per second passed through {@link ConfigurationMonitor#processEvent(TreeCacheEvent)},
+ * from TreeCache event to emitted {@link ConfigurationEvent}. Each update gets new mzxid and content,
+ * so none of them is skipped as redundant. Run with lazy deserialization to see path decoding cost alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationMonitorBenchmark {
+
+	private static final String ENVIRONMENT = "bench";
+	private static final int KEYS = 1000;
+
+	@Param({"false", "true"})
+	public boolean lazy;
+
+	private TestingServer server;
+	private CuratorFramework client;
+	private ConfigurationMonitor monitor;
+	private String[] paths;
+	private byte[][] data;
+	private long zxid;
+
+	@Setup
+	public void setUp() throws Exception {
+		server = new TestingServer(true);
+		client = CuratorFrameworkFactory.newClient(server.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+		client.start();
+		client.blockUntilConnected();
+		monitor = ConfigurationMonitor.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType("server", ServerConfigEntity.class)
+				.registerConfigType("FixedCurrencyRates", FixedCurrencyRates.class)
+				.lazyDeserialization(lazy)
+				.build();
+
+		final JacksonSerializator serializer = new JacksonSerializator();
+		paths = new String[KEYS];
+		data = new byte[KEYS][];
+		for (int i = 0; i < KEYS; i++) {
+			paths[i] = "/config/" + ENVIRONMENT + "/server/" + i;
+			data[i] = serializer.serialize(new ServerConfigEntity(String.valueOf(i), "name" + i, "host" + i, i));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		client.close();
+		server.close();
+	}
+
+	@Benchmark
+	public void processUpdate() throws Exception {
+		final int i = (int) (zxid++ % KEYS);
+		final Stat stat = new Stat();
+		stat.setMzxid(zxid);
+		// alternate content, so unchanged content check doesn't skip the update
+		data[i][data[i].length - 2] ^= 1;
+		monitor.processEvent(new TreeCacheEvent(TreeCacheEvent.Type.NODE_UPDATED, new ChildData(paths[i], stat, data[i].clone())));
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+				.include(ConfigurationMonitorBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
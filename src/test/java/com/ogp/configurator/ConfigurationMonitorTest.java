@@ -9,6 +9,7 @@ import java.util.Hashtable;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
@@ -90,6 +91,9 @@ public class ConfigurationMonitorTest {
 	@After
 	public void tearDown() throws Exception {
 		logger.info("ConfigurationMonitorTest() -- tearDown() starting....");
+		if (configMonitor != null) {
+			configMonitor.close();
+		}
 		client.close();
 		client = null;
 		configManger = null;
@@ -228,6 +232,7 @@ public class ConfigurationMonitorTest {
 		
 		
 		final CountDownLatch sync = new CountDownLatch(1);
+		final CountDownLatch add = new CountDownLatch(1);
 		final CountDownLatch upd = new CountDownLatch(1);
 		
 		final Map<String,Object> conf = new Hashtable<String, Object>();
@@ -244,6 +249,8 @@ public class ConfigurationMonitorTest {
 			public void onNext(ConfigurationEvent event) {
 				if (event.getConfigType() == ConfigType.INITIALIZED) {
 					sync.countDown();
+				} else if (event.getUpdateType() == UpdateType.ADDED) {
+					add.countDown();
 				} else if (event.getUpdateType() == UpdateType.UPDATED) {
 					if (configMonitor.isInitialized()) {
 						conf.put("CONF_UPD", event.getNewValue());
@@ -259,6 +266,8 @@ public class ConfigurationMonitorTest {
 		
 		ServerConfigEntity testConfig1 = new ServerConfigEntity("10","name1","host1",11);
 		configManger.save(testConfig.getId(), testConfig);
+		// back-to-back writes can reach TreeCache as a single event, see IConfigurationManagement#save()
+		assertTrue(add.await(1, TimeUnit.MINUTES));
 		configManger.save(testConfig1.getId(), testConfig1);
 		
 		assertTrue(upd.await(1, TimeUnit.MINUTES));
@@ -268,6 +277,56 @@ public class ConfigurationMonitorTest {
 	}
 	
 	
+	@Test
+	public void testSkipUnchangedConfig() throws Exception {
+		configManger.save(testConfig.getId(), testConfig);
+		
+		configMonitor = ConfigurationMonitor.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.build();
+		
+		final CountDownLatch sync = new CountDownLatch(1);
+		final CountDownLatch upd = new CountDownLatch(1);
+		final AtomicInteger updates = new AtomicInteger();
+		
+		configMonitor.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				if (event.getConfigType() == ConfigType.INITIALIZED) {
+					sync.countDown();
+				} else if (event.getUpdateType() == UpdateType.UPDATED) {
+					updates.incrementAndGet();
+					upd.countDown();
+				}
+			}
+		});
+		
+		configMonitor.start();
+		
+		assertTrue(sync.await(1, TimeUnit.MINUTES));
+		
+		ServerConfigEntity testConfig1 = new ServerConfigEntity("10","name1","host1",11);
+		configManger.save(testConfig.getId(), testConfig);
+		// wait for the unchanged write, so it isn't merged with the next one
+		for (int i = 0; i < 100 && configMonitor.getSkippedUpdates() == 0; i++) {
+			Thread.sleep(50);
+		}
+		configManger.save(testConfig1.getId(), testConfig1);
+		
+		assertTrue(upd.await(1, TimeUnit.MINUTES));
+		
+		assertEquals(1, updates.get());
+		assertEquals(1, configMonitor.getSkippedUpdates());
+	}
+	
 	@Test
 	public void testDeleteConfig() throws Exception {
 		assertNotNull(configManger);
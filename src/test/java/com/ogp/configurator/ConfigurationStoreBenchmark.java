@@ -0,0 +1,105 @@
+package com.ogp.configurator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares monitor based per-type cache (HashMap guarded by synchronized, as it was in Configuration)
+ * with copy-on-write {@link ConfigurationStore} while single writer thread imitates TreeCache updates.
+ * Run {@link #main(String[])} to get results for 1 to 64 reader threads.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationStoreBenchmark {
+
+	/** Backoff between writes, updates from ZooKeeper are rare comparing to reads. */
+	private static final long WRITE_BACKOFF_TOKENS = 10000;
+
+	@Param({"100", "5000"})
+	public int size;
+
+	private String[] keys;
+	private Map<String, Object> lockedEntities;
+	private ConfigurationStore<Object> store;
+
+	@Setup
+	public void setUp() {
+		keys = new String[size];
+		lockedEntities = new HashMap<>();
+		store = new ConfigurationStore<>(Object.class);
+		for (int i = 0; i < size; i++) {
+			keys[i] = "key" + i;
+			lockedEntities.put(keys[i], Integer.valueOf(i));
+			store.put(keys[i], Integer.valueOf(i));
+		}
+	}
+
+	private String nextKey() {
+		return keys[ThreadLocalRandom.current().nextInt(size)];
+	}
+
+	@Benchmark
+	@Group("locked")
+	public Object lockedRead() {
+		final String key = nextKey();
+		synchronized (lockedEntities) {
+			return lockedEntities.get(key);
+		}
+	}
+
+	@Benchmark
+	@Group("locked")
+	public Object lockedWrite() {
+		Blackhole.consumeCPU(WRITE_BACKOFF_TOKENS);
+		final String key = nextKey();
+		synchronized (lockedEntities) {
+			return lockedEntities.put(key, key);
+		}
+	}
+
+	@Benchmark
+	@Group("snapshot")
+	public Object snapshotRead() {
+		return store.get(nextKey());
+	}
+
+	@Benchmark
+	@Group("snapshot")
+	public Object snapshotWrite() {
+		Blackhole.consumeCPU(WRITE_BACKOFF_TOKENS);
+		return store.put(nextKey(), Thread.currentThread());
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (int readers : new int[] {1, 2, 4, 8, 16, 32, 64}) {
+			Options opt = new OptionsBuilder()
+					.include(ConfigurationStoreBenchmark.class.getSimpleName())
+					.threadGroups(readers, 1)
+					.build();
+			new Runner(opt).run();
+		}
+	}
+}
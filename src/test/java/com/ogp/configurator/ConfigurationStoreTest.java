@@ -0,0 +1,130 @@
+package com.ogp.configurator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.ogp.configurator.examples.ServerConfigEntity;
+
+public class ConfigurationStoreTest {
+
+	private ConfigurationStore<ServerConfigEntity> store;
+	private ServerConfigEntity first;
+	private ServerConfigEntity second;
+
+	@Before
+	public void setUp() throws Exception {
+		store = new ConfigurationStore<>(ServerConfigEntity.class);
+		first = new ServerConfigEntity("1", "name1", "host1", 10);
+		second = new ServerConfigEntity("2", "name2", "host2", 20);
+	}
+
+	@Test
+	public void testPutAndGet() throws Exception {
+		assertNull(store.put(first.getId(), first));
+		assertNull(store.put(second.getId(), second));
+
+		assertEquals(2, store.size());
+		assertEquals(first, store.get(first.getId()));
+		assertEquals(second, store.get(second.getId()));
+		assertNull(store.get("3"));
+	}
+
+	@Test
+	public void testUpdateKeepsOrder() throws Exception {
+		store.put(first.getId(), first);
+		store.put(second.getId(), second);
+
+		ServerConfigEntity updated = new ServerConfigEntity("1", "name3", "host3", 30);
+		assertEquals(first, store.put(updated.getId(), updated));
+
+		assertEquals(ImmutableList.of(updated, second), ImmutableList.copyOf(store.values()));
+	}
+
+	@Test
+	public void testApplyEntries() throws Exception {
+		store.put(first.getId(), first);
+		final long version = store.snapshot().getVersion();
+		ServerConfigEntity updated = new ServerConfigEntity("1", "name3", "host3", 30);
+
+		List<Supplier<ServerConfigEntity>> oldValues = store.applyEntries(
+				Arrays.asList(second.getId(), updated.getId(), second.getId(), "3"),
+				Arrays.asList(Suppliers.ofInstance(second), Suppliers.ofInstance(updated), null, null));
+
+		assertEquals(version + 1, store.snapshot().getVersion());
+		assertEquals(ImmutableList.of(updated), ImmutableList.copyOf(store.values()));
+		assertNull(oldValues.get(0));
+		assertEquals(first, oldValues.get(1).get());
+		assertEquals(second, oldValues.get(2).get());
+		assertNull(oldValues.get(3));
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		store.put(first.getId(), first);
+		store.put(second.getId(), second);
+
+		assertEquals(first, store.remove(first.getId()));
+		assertNull(store.remove(first.getId()));
+		assertEquals(1, store.size());
+		assertNull(store.get(first.getId()));
+	}
+
+	@Test
+	public void testValuesIsSnapshot() throws Exception {
+		store.put(first.getId(), first);
+		Collection<ServerConfigEntity> values = store.values();
+
+		store.put(second.getId(), second);
+		store.remove(first.getId());
+
+		assertEquals(1, values.size());
+		assertTrue(values.contains(first));
+	}
+
+	@Test
+	public void testSnapshotVersion() throws Exception {
+		ConfigurationSnapshot<ServerConfigEntity> empty = store.snapshot();
+		assertEquals(0, empty.getVersion());
+
+		store.put(first.getId(), first);
+		store.remove(second.getId());
+		ConfigurationSnapshot<ServerConfigEntity> added = store.snapshot();
+		assertEquals(1, added.getVersion());
+		assertTrue(empty.isEmpty());
+
+		store.remove(first.getId());
+		assertEquals(2, store.snapshot().getVersion());
+		assertEquals(first, added.get(first.getId()));
+	}
+
+	@Test
+	public void testBinding() throws Exception {
+		store.put(first.getId(), first);
+		ConfigurationStore.Binding<ServerConfigEntity> binding = store.bind(first.getId());
+		assertEquals(first, binding.get());
+		assertTrue(binding == store.bind(first.getId()));
+
+		ServerConfigEntity updated = new ServerConfigEntity("1", "name3", "host3", 30);
+		store.put(updated.getId(), updated);
+		assertEquals(updated, binding.get());
+
+		store.remove(first.getId());
+		assertNull(binding.get());
+
+		ConfigurationStore.Binding<ServerConfigEntity> absent = store.bind(second.getId());
+		assertNull(absent.get());
+		store.put(second.getId(), second);
+		assertEquals(second, absent.get());
+	}
+}
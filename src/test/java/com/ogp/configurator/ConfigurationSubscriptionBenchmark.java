@@ -0,0 +1,144 @@
+package com.ogp.configurator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import rx.Observer;
+import rx.functions.Func1;
+import rx.subjects.PublishSubject;
+
+import com.ogp.configurator.ConfigurationEvent.ConfigType;
+import com.ogp.configurator.ConfigurationEvent.UpdateType;
+import com.ogp.configurator.examples.ServerConfigEntity;
+
+/**
+ * Compares per-event overhead of internal cache maintenance subscriptions in {@link Configuration}:
+ * four filtered subscriptions, one per event kind, as it was, against single subscription
+ * dispatching on event type. Handlers only touch the event, so the difference is the cost of routing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationSubscriptionBenchmark {
+
+	private PublishSubject<ConfigurationEvent> filtered;
+	private PublishSubject<ConfigurationEvent> dispatched;
+	private ConfigurationEvent[] events;
+	private int next;
+	private long consumed;
+
+	@Setup
+	public void setUp() {
+		filtered = PublishSubject.create();
+		filtered.filter(new Func1<ConfigurationEvent, Boolean>() {
+			@Override
+			public Boolean call(ConfigurationEvent event) {
+				return event.getConfigType() == ConfigType.CONNECTION_LOST
+						|| event.getConfigType() == ConfigType.CONNECTION_RESTORED;
+			}
+		}).subscribe(new Consumer());
+		filtered.filter(new Func1<ConfigurationEvent, Boolean>() {
+			@Override
+			public Boolean call(ConfigurationEvent event) {
+				return event.getConfigType() == ConfigType.INITIALIZED;
+			}
+		}).subscribe(new Consumer());
+		filtered.filter(new Func1<ConfigurationEvent, Boolean>() {
+			@Override
+			public Boolean call(ConfigurationEvent event) {
+				return event.getUpdateType() == UpdateType.ADDED
+						|| event.getUpdateType() == UpdateType.UPDATED;
+			}
+		}).subscribe(new Consumer());
+		filtered.filter(new Func1<ConfigurationEvent, Boolean>() {
+			@Override
+			public Boolean call(ConfigurationEvent event) {
+				return event.getUpdateType() == UpdateType.REMOVED;
+			}
+		}).subscribe(new Consumer());
+
+		dispatched = PublishSubject.create();
+		dispatched.subscribe(new Consumer() {
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				switch (event.getConfigType()) {
+					case UNDEFINED:
+						switch (event.getUpdateType()) {
+							case ADDED:
+							case UPDATED:
+							case REMOVED:
+								super.onNext(event);
+								break;
+							default:
+								break;
+						}
+						break;
+					default:
+						super.onNext(event);
+						break;
+				}
+			}
+		});
+
+		final ServerConfigEntity entity = new ServerConfigEntity("1", "name", "host", 10);
+		events = new ConfigurationEvent[] {
+				new ConfigurationEvent("1", ServerConfigEntity.class, "1", null, entity, UpdateType.ADDED),
+				new ConfigurationEvent("1", ServerConfigEntity.class, "1", entity, entity, UpdateType.UPDATED),
+				new ConfigurationEvent("1", ServerConfigEntity.class, "1", entity, entity, UpdateType.UPDATED),
+				new ConfigurationEvent("1", ServerConfigEntity.class, "1", entity, null, UpdateType.REMOVED),
+		};
+	}
+
+	private ConfigurationEvent nextEvent() {
+		return events[next++ & (events.length - 1)];
+	}
+
+	@Benchmark
+	public long fourFilteredSubscriptions() {
+		filtered.onNext(nextEvent());
+		return consumed;
+	}
+
+	@Benchmark
+	public long singleDispatchingSubscription() {
+		dispatched.onNext(nextEvent());
+		return consumed;
+	}
+
+	private class Consumer implements Observer<ConfigurationEvent> {
+
+		@Override
+		public void onCompleted() {}
+
+		@Override
+		public void onError(Throwable e) {}
+
+		@Override
+		public void onNext(ConfigurationEvent event) {
+			consumed += event.getKey().length();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+				.include(ConfigurationSubscriptionBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -1,13 +1,20 @@
 package com.ogp.configurator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -24,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import rx.Observer;
 
+import com.google.common.base.Function;
 import com.ogp.configurator.ConfigurationEvent.ConfigType;
 import com.ogp.configurator.ConfigurationEvent.UpdateType;
 import com.ogp.configurator.examples.FixedCurrencyRates;
@@ -85,6 +93,9 @@ private static final Logger logger = LoggerFactory.getLogger(ConfigurationTest.c
 	@After
 	public void tearDown() throws Exception {
 		logger.info("ConfigurationTest() -- tearDown() starting....");
+		if (config != null) {
+			config.close();
+		}
 		client.close();
 		client = null;
 		configManger = null;
@@ -95,6 +106,20 @@ private static final Logger logger = LoggerFactory.getLogger(ConfigurationTest.c
 		logger.info("ConfigurationTest() -- tearDown() starting....Done.");
 	}
 
+	private static void assertThreadsStopped(String namePrefix) throws InterruptedException {
+		boolean running = true;
+		for (int i = 0; i < 100 && running; i++) {
+			running = false;
+			for (Thread thread : Thread.getAllStackTraces().keySet()) {
+				running |= thread.isAlive() && thread.getName().startsWith(namePrefix);
+			}
+			if (running) {
+				Thread.sleep(50);
+			}
+		}
+		assertFalse(running);
+	}
+
 	@Test
 	public void testInitialization() throws Exception {
 		assertNotNull(configManger);
@@ -193,6 +218,567 @@ private static final Logger logger = LoggerFactory.getLogger(ConfigurationTest.c
 		assertEquals(testRate, rl.get(0));
 	}
 	
+	@Test
+	public void testSnapshot() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.build();
+		assertNotNull(config);
+		
+		configManger.save(testConfig.getId(), testConfig);
+		
+		config.start();
+		
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		
+		ConfigurationSnapshot<ServerConfigEntity> snapshot = config.snapshot(ServerConfigEntity.class);
+		assertEquals(1, snapshot.size());
+		assertEquals(testConfig, snapshot.get(testConfig.getId()));
+		assertTrue(snapshot.values().contains(testConfig));
+		assertTrue(config.snapshot(FixedCurrencyRates.class).isEmpty());
+		assertTrue(snapshot == config.snapshot(ServerConfigEntity.class));
+	}
+	
+	@Test
+	public void testHandle() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.build();
+		assertNotNull(config);
+		
+		ConfigurationHandle<ServerConfigEntity> handle = config.handle(ServerConfigEntity.class);
+		assertNull(handle.get(testConfig.getId()));
+		
+		configManger.save(testConfig.getId(), testConfig);
+		
+		config.start();
+		
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		
+		assertEquals(ServerConfigEntity.class, handle.getTypeClass());
+		assertEquals(testConfig, handle.get(testConfig.getId()));
+		assertEquals(1, handle.snapshot().size());
+	}
+	
+	@Test(expected = UnknownTypeException.class)
+	public void testHandleUnknownType() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.build();
+		config.handle(FixedCurrencyRates.class);
+	}
+	
+	@Test
+	public void testBind() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.build();
+		assertNotNull(config);
+		
+		final ServerConfigEntity defaultConfig = new ServerConfigEntity("0", "default", "localhost", 1);
+		ConfigurationReference<ServerConfigEntity> reference = config.bind(ServerConfigEntity.class, testConfig.getId(), defaultConfig);
+		assertEquals(defaultConfig, reference.get());
+		assertFalse(reference.isPresent());
+		
+		final CountDownLatch upd = new CountDownLatch(1);
+		config.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				if (event.getUpdateType() == UpdateType.UPDATED)
+					upd.countDown();
+			}
+		});
+		
+		configManger.save(testConfig.getId(), testConfig);
+		
+		config.start();
+		
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		assertEquals(testConfig, reference.get());
+		assertTrue(reference.isPresent());
+		
+		ServerConfigEntity newConfig = new ServerConfigEntity(testConfig.getId(), "name1", "host1", 11);
+		configManger.save(newConfig.getId(), newConfig);
+		
+		assertTrue(upd.await(1, TimeUnit.MINUTES));
+		assertEquals(newConfig, reference.get());
+		assertEquals(newConfig, config.bind(ServerConfigEntity.class, testConfig.getId()).get());
+	}
+	
+	@Test
+	public void testFind() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.registerIndex(ServerConfigEntity.class, "port", new Function<ServerConfigEntity, Integer>() {
+					@Override
+					public Integer apply(ServerConfigEntity value) {
+						return value.getPort();
+					}
+				})
+				.registerMultiIndex(FixedCurrencyRates.class, "currency", new Function<FixedCurrencyRates, Iterable<String>>() {
+					@Override
+					public Iterable<String> apply(FixedCurrencyRates value) {
+						return value.getRates().keySet();
+					}
+				})
+				.build();
+		assertNotNull(config);
+		
+		ServerConfigEntity otherConfig = new ServerConfigEntity("11", "name1", "host1", 11);
+		configManger.save(testConfig.getId(), testConfig);
+		configManger.save(otherConfig.getId(), otherConfig);
+		configManger.save(testRate.getKey(), testRate);
+		
+		config.start();
+		
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		
+		Collection<ServerConfigEntity> byPort = config.find(ServerConfigEntity.class, "port", testConfig.getPort());
+		assertEquals(1, byPort.size());
+		assertTrue(byPort.contains(testConfig));
+		assertTrue(config.handle(ServerConfigEntity.class).find("port", otherConfig.getPort()).contains(otherConfig));
+		assertTrue(config.find(ServerConfigEntity.class, "port", 1).isEmpty());
+		
+		assertTrue(config.find(FixedCurrencyRates.class, "currency", "UAH").contains(testRate));
+		assertTrue(config.find(FixedCurrencyRates.class, "currency", "GBP").isEmpty());
+	}
+	
+	@Test(expected = UnknownTypeException.class)
+	public void testFindUnknownIndex() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.build();
+		config.find(ServerConfigEntity.class, "port", 10);
+	}
+	
+	@Test
+	public void testLazyDeserialization() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.lazyDeserialization(true)
+				.build();
+		assertNotNull(config);
+		
+		final List<ConfigurationEvent> events = new ArrayList<ConfigurationEvent>();
+		final CountDownLatch upd = new CountDownLatch(1);
+		config.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				events.add(event);
+				if (event.getUpdateType() == UpdateType.UPDATED)
+					upd.countDown();
+			}
+		});
+		
+		configManger.save(testConfig.getId(), testConfig);
+		configManger.save(testRate.getKey(), testRate);
+		
+		config.start();
+		
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		assertEquals(testConfig, config.get(ServerConfigEntity.class, testConfig.getId()));
+		assertEquals(testRate, config.list(FixedCurrencyRates.class).get(0));
+		
+		ServerConfigEntity newConfig = new ServerConfigEntity(testConfig.getId(), "name1", "host1", 11);
+		configManger.save(newConfig.getId(), newConfig);
+		
+		assertTrue(upd.await(1, TimeUnit.MINUTES));
+		ConfigurationEvent updated = events.get(events.size() - 1);
+		assertEquals(newConfig, updated.getNewValue());
+		assertEquals(testConfig, updated.getOldValue());
+		assertEquals(newConfig, config.get(ServerConfigEntity.class, testConfig.getId()));
+	}
+	
+	@Test
+	public void testListenBatches() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.batchEvents(1, TimeUnit.MINUTES, 3)
+				.build();
+		assertNotNull(config);
+		
+		final List<List<ConfigurationEvent>> batches = new ArrayList<List<ConfigurationEvent>>();
+		final CountDownLatch batch = new CountDownLatch(1);
+		config.listenBatches().subscribe(new Observer<List<ConfigurationEvent>>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(List<ConfigurationEvent> events) {
+				batches.add(events);
+				batch.countDown();
+			}
+		});
+		
+		configManger.save(testConfig.getId(), testConfig);
+		configManger.save(testRate.getKey(), testRate);
+		
+		config.start();
+		
+		assertTrue(batch.await(1, TimeUnit.MINUTES));
+		assertEquals(1, batches.size());
+		List<ConfigurationEvent> events = batches.get(0);
+		assertEquals(3, events.size());
+		assertEquals(UpdateType.ADDED, events.get(0).getUpdateType());
+		assertEquals(UpdateType.ADDED, events.get(1).getUpdateType());
+		assertEquals(ConfigType.INITIALIZED, events.get(2).getConfigType());
+	}
+	
+	@Test
+	public void testAsyncDispatch() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.asyncDispatch(64, ConfigurationDispatcher.OverflowPolicy.BLOCK)
+				.build();
+		assertNotNull(config);
+		
+		final List<String> threads = new ArrayList<String>();
+		final CountDownLatch sync = new CountDownLatch(1);
+		config.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				threads.add(Thread.currentThread().getName());
+				if (event.getConfigType() == ConfigType.INITIALIZED)
+					sync.countDown();
+			}
+		});
+		
+		configManger.save(testConfig.getId(), testConfig);
+		
+		config.start();
+		
+		assertTrue(sync.await(1, TimeUnit.MINUTES));
+		assertEquals(testConfig, config.get(ServerConfigEntity.class, testConfig.getId()));
+		assertEquals(2, threads.size());
+		for (String thread : threads) {
+			assertTrue(thread.startsWith("configuration-dispatcher-"));
+		}
+		assertEquals(0, config.getDispatcher().getDroppedEvents());
+		
+		config.close();
+		assertThreadsStopped("configuration-dispatcher-");
+	}
+	
+	@Test
+	public void testParallelInitialLoad() throws Exception {
+		Map<String, ServerConfigEntity> configs = new LinkedHashMap<String, ServerConfigEntity>();
+		for (int i = 0; i < 200; i++) {
+			configs.put(String.valueOf(i), new ServerConfigEntity(String.valueOf(i), "name" + i, "host" + i, i));
+		}
+		configManger.saveAll(configs);
+		
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.parallelInitialLoad(4)
+				.build();
+		final List<ConfigurationEvent> events = Collections.synchronizedList(new ArrayList<ConfigurationEvent>());
+		final CountDownLatch sync = new CountDownLatch(1);
+		config.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				events.add(event);
+				if (event.getConfigType() == ConfigType.INITIALIZED)
+					sync.countDown();
+			}
+		});
+		config.start();
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		// awaitInitialized() may return before INITIALIZED reaches the listeners
+		assertTrue(sync.await(1, TimeUnit.MINUTES));
+		
+		assertEquals(201, events.size());
+		assertEquals(ConfigType.INITIALIZED, events.get(200).getConfigType());
+		// whole type is published at once
+		assertEquals(1, config.snapshot(ServerConfigEntity.class).getVersion());
+		assertEquals(200, config.list(ServerConfigEntity.class).size());
+		assertEquals(configs.get("42"), config.get(ServerConfigEntity.class, "42"));
+		
+		// updates after initialization are applied one by one
+		ServerConfigEntity updated = new ServerConfigEntity("42", "name", "updated", 42);
+		configManger.save(updated.getId(), updated);
+		for (int i = 0; i < 100 && !updated.equals(config.get(ServerConfigEntity.class, "42")); i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(updated, config.get(ServerConfigEntity.class, "42"));
+		assertEquals(2, config.snapshot(ServerConfigEntity.class).getVersion());
+	}
+
+	@Test
+	public void testInitialLoadPublishedAtOnce() throws Exception {
+		Map<String, ServerConfigEntity> configs = new LinkedHashMap<String, ServerConfigEntity>();
+		for (int i = 0; i < 200; i++) {
+			configs.put(String.valueOf(i), new ServerConfigEntity(String.valueOf(i), "name" + i, "host" + i, i));
+		}
+		configManger.saveAll(configs);
+
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.build();
+		config.start();
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+
+		// loaded sequentially, but still published as a single snapshot
+		assertEquals(1, config.snapshot(ServerConfigEntity.class).getVersion());
+		assertEquals(200, config.list(ServerConfigEntity.class).size());
+		assertEquals(configs.get("42"), config.get(ServerConfigEntity.class, "42"));
+	}
+
+	@Test
+	public void testPatchedValue() throws Exception {
+		configManger.save(testRate.getKey(), testRate);
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.build();
+		config.start();
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		assertEquals(testRate, config.get(FixedCurrencyRates.class, testRate.getKey()));
+
+		// first patch moves the object to the base, later ones change only the patch
+		for (int i = 0; i < 3; i++) {
+			int version = configManger.getWithVersion(FixedCurrencyRates.class, testRate.getKey()).getVersion();
+			assertTrue(configManger.patch(FixedCurrencyRates.class, testRate.getKey(), "{\"rates\":{\"USD\":1.0" + i + "}}", version));
+			testRate.addRate("USD", new BigDecimal("1.0" + i));
+			for (int j = 0; j < 100 && !testRate.equals(config.get(FixedCurrencyRates.class, testRate.getKey())); j++) {
+				Thread.sleep(50);
+			}
+			assertEquals(testRate, config.get(FixedCurrencyRates.class, testRate.getKey()));
+		}
+
+		// object written as a whole replaces the patched one
+		testRate.addRate("GBP", new BigDecimal("0.71"));
+		configManger.save(testRate.getKey(), testRate);
+		for (int j = 0; j < 100 && !testRate.equals(config.get(FixedCurrencyRates.class, testRate.getKey())); j++) {
+			Thread.sleep(50);
+		}
+		assertEquals(testRate, config.get(FixedCurrencyRates.class, testRate.getKey()));
+	}
+
+	@Test
+	public void testChunkedValue() throws Exception {
+		ConfigurationManager chunkingManager = ConfigurationManager.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.chunkSize(1024)
+				.build();
+		chunkingManager.start();
+		FixedCurrencyRates large = new FixedCurrencyRates("LARGE");
+		for (int i = 0; i < 200; i++) {
+			large.addRate("CUR" + i, BigDecimal.valueOf(100000 + i, 4));
+		}
+		chunkingManager.save(large.getKey(), large);
+
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.build();
+		final List<ConfigurationEvent> events = Collections.synchronizedList(new ArrayList<ConfigurationEvent>());
+		config.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				if (event.getTypeClass() == FixedCurrencyRates.class)
+					events.add(event);
+			}
+		});
+		config.start();
+		assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+		assertEquals(large, config.get(FixedCurrencyRates.class, large.getKey()));
+		assertEquals(1, events.size());
+
+		// value is published once, when all chunks of the new generation are received
+		large.addRate("NEW", BigDecimal.ONE);
+		chunkingManager.save(large.getKey(), large);
+		for (int i = 0; i < 100 && events.size() < 2; i++) {
+			Thread.sleep(50);
+		}
+		Thread.sleep(200);
+		assertEquals(2, events.size());
+		assertEquals(large, events.get(1).getNewValue());
+		assertEquals(large, config.get(FixedCurrencyRates.class, large.getKey()));
+	}
+	
+	@Test
+	public void testLocalSnapshot() throws Exception {
+		File snapshot = File.createTempFile("configuration", ".snapshot");
+		assertTrue(snapshot.delete());
+		try {
+			for (int i = 1; i <= 3; i++) {
+				configManger.save(String.valueOf(i), new ServerConfigEntity(String.valueOf(i), "name" + i, "host" + i, i));
+			}
+			config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+					.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+					.localSnapshot(snapshot, 50, TimeUnit.MILLISECONDS)
+					.build();
+			config.start();
+			assertTrue(config.awaitInitialized(1, TimeUnit.MINUTES));
+			assertEquals(0, config.getRestoredNodes());
+			for (int i = 0; i < 100 && snapshot.length() == 0; i++) {
+				Thread.sleep(50);
+			}
+			assertTrue(snapshot.length() > 0);
+			config.close();
+			assertThreadsStopped("configuration-snapshot-");
+			
+			// changes made while the process is down
+			configManger.delete(ServerConfigEntity.class, "1");
+			ServerConfigEntity updated = new ServerConfigEntity("2", "name2", "updated", 2);
+			configManger.save(updated.getId(), updated);
+			
+			Configuration restarted = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+					.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+					.localSnapshot(snapshot)
+					.build();
+			final List<ConfigurationEvent> events = Collections.synchronizedList(new ArrayList<ConfigurationEvent>());
+			final CountDownLatch sync = new CountDownLatch(1);
+			restarted.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+				@Override
+				public void onCompleted() {}
+
+				@Override
+				public void onError(Throwable e) {}
+
+				@Override
+				public void onNext(ConfigurationEvent event) {
+					events.add(event);
+					if (event.getConfigType() == ConfigType.INITIALIZED)
+						sync.countDown();
+				}
+			});
+			restarted.start();
+			// objects are restored from snapshot synchronously in start()
+			assertEquals(3, restarted.getRestoredNodes());
+			assertTrue(restarted.awaitInitialized(0, TimeUnit.SECONDS));
+			assertTrue(events.size() >= 3);
+			for (int i = 0; i < 3; i++) {
+				assertEquals(UpdateType.ADDED, events.get(i).getUpdateType());
+			}
+			
+			assertTrue(sync.await(1, TimeUnit.MINUTES));
+			assertTrue(restarted.isInitialized());
+			assertNull(restarted.get(ServerConfigEntity.class, "1"));
+			assertEquals(updated, restarted.get(ServerConfigEntity.class, "2"));
+			assertEquals(new ServerConfigEntity("3", "name3", "host3", 3), restarted.get(ServerConfigEntity.class, "3"));
+			// unchanged object is not deserialized nor emitted again
+			assertEquals(1, restarted.getSkippedUpdates());
+			assertEquals(6, events.size());
+			assertEquals(UpdateType.UPDATED, events.get(3).getUpdateType());
+			assertEquals(UpdateType.REMOVED, events.get(4).getUpdateType());
+			assertEquals("1", events.get(4).getKey());
+			restarted.close();
+		} finally {
+			snapshot.delete();
+		}
+	}
+	
+	@Test
+	public void testListenByTypeAndKey() throws Exception {
+		config = Configuration.newBuilder(client, new JacksonSerializator(), ENVIRONMENT)
+				.registerConfigType(CONFIG_TYPE, ServerConfigEntity.class)
+				.registerConfigType(RATES_TYPE, FixedCurrencyRates.class)
+				.build();
+		assertNotNull(config);
+		
+		final ServerConfigEntity otherConfig = new ServerConfigEntity("11", "name1", "host1", 11);
+		final List<ServerConfigEntity> byType = new ArrayList<ServerConfigEntity>();
+		final List<ServerConfigEntity> byKey = new ArrayList<ServerConfigEntity>();
+		final CountDownLatch sync = new CountDownLatch(1);
+		config.listen(ServerConfigEntity.class).subscribe(new Observer<ConfigurationChange<ServerConfigEntity>>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationChange<ServerConfigEntity> change) {
+				byType.add(change.getNewValue());
+			}
+		});
+		config.listen(ServerConfigEntity.class, otherConfig.getId()).subscribe(new Observer<ConfigurationChange<ServerConfigEntity>>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationChange<ServerConfigEntity> change) {
+				assertEquals(UpdateType.ADDED, change.getUpdateType());
+				byKey.add(change.getNewValue());
+			}
+		});
+		config.listen().subscribe(new Observer<ConfigurationEvent>() {
+
+			@Override
+			public void onCompleted() {}
+
+			@Override
+			public void onError(Throwable e) {}
+
+			@Override
+			public void onNext(ConfigurationEvent event) {
+				if (event.getConfigType() == ConfigType.INITIALIZED)
+					sync.countDown();
+			}
+		});
+		
+		configManger.save(testConfig.getId(), testConfig);
+		configManger.save(otherConfig.getId(), otherConfig);
+		configManger.save(testRate.getKey(), testRate);
+		
+		config.start();
+		
+		assertTrue(sync.await(1, TimeUnit.MINUTES));
+		assertEquals(2, byType.size());
+		assertTrue(byType.contains(testConfig));
+		assertTrue(byType.contains(otherConfig));
+		assertEquals(1, byKey.size());
+		assertEquals(otherConfig, byKey.get(0));
+	}
+	
 	@Test
 	public void testUpdateObservable() throws Exception {
 		assertNotNull(configManger);
@@ -0,0 +1,71 @@
+package com.ogp.configurator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ogp.configurator.examples.ServerConfigEntity;
+import com.ogp.configurator.serializer.JacksonSerializator;
+
+public class LazyConfigurationValueTest {
+
+	private CountingSerializer serializer;
+	private ServerConfigEntity entity;
+
+	@Before
+	public void setUp() throws Exception {
+		serializer = new CountingSerializer();
+		entity = new ServerConfigEntity("1", "name1", "host1", 10);
+	}
+
+	@Test
+	public void testDeserializesOnce() throws Exception {
+		LazyConfigurationValue<ServerConfigEntity> value = new LazyConfigurationValue<>(
+				"/config/local/server/1", serializer.serialize(entity), ServerConfigEntity.class, serializer);
+		assertFalse(value.isDecoded());
+		assertEquals(0, serializer.deserialized.get());
+
+		assertEquals(entity, value.get());
+		assertEquals(entity, value.get());
+		assertTrue(value.isDecoded());
+		assertEquals(1, serializer.deserialized.get());
+	}
+
+	@Test
+	public void testIncorrectData() throws Exception {
+		LazyConfigurationValue<ServerConfigEntity> value = new LazyConfigurationValue<>(
+				"/config/local/server/1", "{bad".getBytes(), ServerConfigEntity.class, serializer);
+
+		assertNull(value.get());
+		assertNull(value.get());
+		assertEquals(1, serializer.deserialized.get());
+	}
+
+	@Test
+	public void testLazyStoreEntry() throws Exception {
+		ConfigurationStore<ServerConfigEntity> store = new ConfigurationStore<>(ServerConfigEntity.class);
+		LazyConfigurationValue<ServerConfigEntity> value = new LazyConfigurationValue<>(
+				"/config/local/server/1", serializer.serialize(entity), ServerConfigEntity.class, serializer);
+		store.putEntry(entity.getId(), value);
+		assertFalse(value.isDecoded());
+
+		assertEquals(entity, store.get(entity.getId()));
+		assertTrue(value.isDecoded());
+	}
+
+	private static class CountingSerializer extends JacksonSerializator {
+		private final AtomicInteger deserialized = new AtomicInteger();
+
+		@Override
+		public <T> T deserialize(byte[] array, Class<T> clazz) {
+			deserialized.incrementAndGet();
+			return super.deserialize(array, clazz);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.ogp.configurator.serializer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ogp.configurator.examples.FixedCurrencyRates;
+
+/**
+ * Measures throughput cost of Deflate compression on top of Json and Smile for rate tables.
+ * Level 0 means no compression. Serialized sizes are printed by {@link #main(String[])} before the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressingSerializatorBenchmark {
+
+	private static final String[] FORMATS = {"json", "smile"};
+	private static final int[] LEVELS = {0, Deflater.BEST_SPEED, 6, Deflater.BEST_COMPRESSION};
+
+	@Param({"json", "smile"})
+	public String format;
+
+	@Param({"0", "1", "6", "9"})
+	public int level;
+
+	@Param({"1000", "20000"})
+	public int rates;
+
+	private ISerializer serializer;
+	private FixedCurrencyRates value;
+	private byte[] data;
+
+	@Setup
+	public void setUp() {
+		serializer = serializer(format, level);
+		value = rateTable(rates);
+		data = serializer.serialize(value);
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return serializer.serialize(value);
+	}
+
+	@Benchmark
+	public FixedCurrencyRates deserialize() {
+		return serializer.deserialize(data, FixedCurrencyRates.class);
+	}
+
+	private static ISerializer serializer(String format, int level) {
+		final ISerializer serializer = "smile".equals(format) ? new JacksonSmileSerializator() : new JacksonSerializator();
+		return level > 0 ? new CompressingSerializator(serializer, 0, level) : serializer;
+	}
+
+	private static FixedCurrencyRates rateTable(int size) {
+		final FixedCurrencyRates table = new FixedCurrencyRates("RATES");
+		for (int i = 0; i < size; i++) {
+			table.addRate("CUR" + i, BigDecimal.valueOf(100000 + i, 4));
+		}
+		return table;
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (String format : FORMATS) {
+			for (int level : LEVELS) {
+				for (int size : new int[] {1000, 20000}) {
+					System.out.println(format + ", level " + level + ", " + size + " rates: "
+							+ serializer(format, level).serialize(rateTable(size)).length + " bytes");
+				}
+			}
+		}
+		Options opt = new OptionsBuilder()
+				.include(CompressingSerializatorBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,57 @@
+package com.ogp.configurator.serializer;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ogp.configurator.examples.FixedCurrencyRates;
+import com.ogp.configurator.examples.ServerConfigEntity;
+
+public class CompressingSerializatorTest {
+
+	private ISerializer json;
+	private ISerializer serializer;
+	private FixedCurrencyRates rates;
+
+	@Before
+	public void setUp() throws Exception {
+		json = new JacksonSerializator();
+		serializer = new CompressingSerializator(json);
+		rates = new FixedCurrencyRates("RATES");
+		for (int i = 0; i < 1000; i++) {
+			rates.addRate("CUR" + i, BigDecimal.valueOf(100000 + i, 4));
+		}
+	}
+
+	@Test
+	public void testCompressLarge() {
+		byte[] data = serializer.serialize(rates);
+		assertEquals(CompressingSerializator.DEFLATE, data[0]);
+		assertTrue(data.length < json.serialize(rates).length / 2);
+		assertEquals(rates, serializer.deserialize(data, FixedCurrencyRates.class));
+	}
+
+	@Test
+	public void testKeepSmallUncompressed() {
+		ServerConfigEntity ent = new ServerConfigEntity("10", "name", "host", 10);
+		byte[] data = serializer.serialize(ent);
+		assertArrayEquals(json.serialize(ent), data);
+		assertEquals(ent, serializer.deserialize(data, ServerConfigEntity.class));
+	}
+
+	@Test
+	public void testReadUncompressed() {
+		// nodes written before compression was enabled
+		assertEquals(rates, serializer.deserialize(json.serialize(rates), FixedCurrencyRates.class));
+	}
+
+	@Test(expected = SerializationException.class)
+	public void testCorrupted() {
+		byte[] data = serializer.serialize(rates);
+		serializer.deserialize(Arrays.copyOf(data, data.length / 2), FixedCurrencyRates.class);
+	}
+}
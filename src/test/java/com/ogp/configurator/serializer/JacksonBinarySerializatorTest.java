@@ -0,0 +1,46 @@
+package com.ogp.configurator.serializer;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.ogp.configurator.examples.FixedCurrencyRates;
+import com.ogp.configurator.examples.ServerConfigEntity;
+
+/**
+ * Round trip of {@link JacksonSmileSerializator} and {@link JacksonCborSerializator}.
+ */
+public class JacksonBinarySerializatorTest {
+
+	@Test
+	public void testRoundTrip() {
+		ServerConfigEntity ent = new ServerConfigEntity("10", "name", "host", 10);
+		byte[] json = new JacksonSerializator().serialize(ent);
+		
+		for (ISerializer serializer : Arrays.asList(new JacksonSmileSerializator(), new JacksonCborSerializator())) {
+			byte[] data = serializer.serialize(ent);
+			assertEquals(ent, serializer.deserialize(data, ServerConfigEntity.class));
+			assertTrue(serializer + " data must be smaller than Json", data.length < json.length);
+		}
+	}
+
+	@Test
+	public void testSmileSharedNames() {
+		FixedCurrencyRates rates = new FixedCurrencyRates("RATES");
+		for (int i = 0; i < 100; i++) {
+			rates.addRate("C" + i, new BigDecimal("1.01").add(BigDecimal.valueOf(i)));
+		}
+		ISerializer serializer = new JacksonSmileSerializator();
+		byte[] data = serializer.serialize(rates);
+		assertEquals(rates, serializer.deserialize(data, FixedCurrencyRates.class));
+		assertTrue(data.length < new JacksonSerializator().serialize(rates).length);
+	}
+
+	@Test(expected = SerializationException.class)
+	public void testDeserializeJsonAsSmile() {
+		new JacksonSmileSerializator().deserialize(new JacksonSerializator().serialize(new ServerConfigEntity("10", "name", "host", 10)), ServerConfigEntity.class);
+	}
+}
@@ -5,9 +5,12 @@ package com.ogp.configurator.serializer;
 
 import static org.junit.Assert.*;
 
+import java.math.BigDecimal;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import com.ogp.configurator.examples.FixedCurrencyRates;
 import com.ogp.configurator.examples.ServerConfigEntity;
 
 /**
@@ -64,4 +67,57 @@ public class JacksonSerializatorTest {
 			fail(e.toString());
 		}
 	}
+
+	/**
+	 * Test method for {@link com.ogp.configurator.serializer.JacksonSerializator#JacksonSerializator(boolean)}
+	 * with Afterburner, which must produce the same data.
+	 */
+	@Test
+	public void testAfterburner() {
+		JacksonSerializator afterburner = new JacksonSerializator(true);
+		afterburner.prepare(ServerConfigEntity.class);
+		ServerConfigEntity ent = new ServerConfigEntity("10", "name", "host", 10);
+		assertArrayEquals(serialize_result, afterburner.serialize(ent));
+		assertEquals(ent, afterburner.deserialize(serialize_result, ServerConfigEntity.class));
+	}
+
+	/**
+	 * Test method for {@link com.ogp.configurator.serializer.JacksonSerializator#applyPatch(Object, byte[])}.
+	 */
+	@Test
+	public void testApplyPatch() {
+		JacksonSerializator patcher = new JacksonSerializator();
+		FixedCurrencyRates rates = new FixedCurrencyRates("RATES")
+				.addRate("USD", new BigDecimal("1.0100"))
+				.addRate("EUR", new BigDecimal("1.3100"));
+		Object base = patcher.readDocument(patcher.serialize(rates));
+		Object patched = patcher.applyPatch(base, patcher.readPatch("{\"rates\":{\"USD\":1.0200,\"EUR\":null,\"UAH\":21.1100}}"));
+		
+		FixedCurrencyRates expected = new FixedCurrencyRates("RATES")
+				.addRate("USD", new BigDecimal("1.0200"))
+				.addRate("UAH", new BigDecimal("21.1100"));
+		assertEquals(expected, patcher.toValue(patched, FixedCurrencyRates.class));
+		assertEquals(expected, patcher.deserialize(patcher.writeDocument(patched), FixedCurrencyRates.class));
+		// base document is not modified
+		assertEquals(rates, patcher.toValue(base, FixedCurrencyRates.class));
+	}
+
+	/**
+	 * Test method for {@link com.ogp.configurator.serializer.JacksonSerializator#combinePatches(byte[], byte[])}.
+	 */
+	@Test
+	public void testCombinePatches() {
+		JacksonSerializator patcher = new JacksonSerializator();
+		ServerConfigEntity ent = new ServerConfigEntity("10", "name", "host", 10);
+		Object base = patcher.readDocument(patcher.serialize(ent));
+		byte[] first = patcher.readPatch("{\"host\":\"first\",\"port\":11}");
+		byte[] second = patcher.readPatch("{\"host\":\"second\",\"name\":\"other\"}");
+		byte[] combined = patcher.combinePatches(first, second);
+		
+		ServerConfigEntity expected = new ServerConfigEntity("10", "other", "second", 11);
+		assertEquals(expected, patcher.toValue(patcher.applyPatch(base, combined), ServerConfigEntity.class));
+		assertEquals(expected, patcher.toValue(patcher.applyPatch(patcher.applyPatch(base, first), second), ServerConfigEntity.class));
+		// object set in place of removed member can't be merged into target by a single patch
+		assertNull(patcher.combinePatches(patcher.readPatch("{\"a\":null}"), patcher.readPatch("{\"a\":{\"b\":1}}")));
+	}
 }
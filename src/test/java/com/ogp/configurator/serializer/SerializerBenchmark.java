@@ -0,0 +1,96 @@
+package com.ogp.configurator.serializer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ogp.configurator.examples.FixedCurrencyRates;
+
+/**
+ * Compares encode and decode speed of serializers on a rate table, the kind of payload
+ * which is large and updated often, with and without Afterburner. Serialized sizes are printed by {@link #main(String[])}
+ * before the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+	@Param({"json", "smile", "cbor"})
+	public String format;
+
+	@Param({"10", "1000"})
+	public int rates;
+
+	@Param({"false", "true"})
+	public boolean afterburner;
+
+	private ISerializer serializer;
+	private FixedCurrencyRates value;
+	private byte[] data;
+
+	@Setup
+	public void setUp() {
+		serializer = serializer(format, afterburner);
+		value = rateTable(rates);
+		data = serializer.serialize(value);
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return serializer.serialize(value);
+	}
+
+	@Benchmark
+	public FixedCurrencyRates deserialize() {
+		return serializer.deserialize(data, FixedCurrencyRates.class);
+	}
+
+	private static ISerializer serializer(String format, boolean afterburner) {
+		switch (format) {
+		case "smile":
+			return new JacksonSmileSerializator(afterburner);
+		case "cbor":
+			return new JacksonCborSerializator(afterburner);
+		default:
+			return new JacksonSerializator(afterburner);
+		}
+	}
+
+	private static FixedCurrencyRates rateTable(int size) {
+		final FixedCurrencyRates table = new FixedCurrencyRates("RATES");
+		for (int i = 0; i < size; i++) {
+			table.addRate("CUR" + i, BigDecimal.valueOf(100000 + i, 4));
+		}
+		return table;
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (String format : new String[] {"json", "smile", "cbor"}) {
+			for (int size : new int[] {10, 1000}) {
+				System.out.println(format + ", " + size + " rates: " + serializer(format, false).serialize(rateTable(size)).length + " bytes");
+			}
+		}
+		Options opt = new OptionsBuilder()
+				.include(SerializerBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}